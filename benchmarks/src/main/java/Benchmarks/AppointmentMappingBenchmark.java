@@ -0,0 +1,92 @@
+package Benchmarks;
+
+import DAO.RowMappers;
+import Helper.RowMapper;
+import Helper.TimeUtility;
+import Model.Appointments;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading a whole appointments table and mapping each row to an appointment.
+ * <p>
+ * {@link #byIndex()} uses {@link RowMappers#appointments}, which resolves the column positions
+ * once per result set. {@link #byLabel()} reads every column by label on every row, as the DAO
+ * loops did before the shared mappers existed.
+ * </p>
+ * <p>
+ * The table lives in an in-memory H2 database, so the numbers cover the JDBC driver and the
+ * mapping code but not the network. Use them to compare mapping strategies, not to predict
+ * MySQL round-trip times.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppointmentMappingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private Connection connection;
+    private PreparedStatement selectAll;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:mapping;DB_CLOSE_DELAY=-1");
+        SyntheticData.createAppointmentsTable(connection, new SyntheticData(SyntheticData.defaultSeed).appointments(rows, 100));
+        selectAll = connection.prepareStatement("SELECT * FROM appointments");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        selectAll.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Appointments> byIndex() throws SQLException {
+        try (ResultSet rs = selectAll.executeQuery()) {
+            return RowMapper.mapAll(rs, RowMappers.appointments, new ArrayList<>(rows));
+        }
+    }
+
+    @Benchmark
+    public List<Appointments> byLabel() throws SQLException {
+        List<Appointments> appointments = new ArrayList<>(rows);
+        try (ResultSet rs = selectAll.executeQuery()) {
+            while (rs.next()) {
+                appointments.add(new Appointments(rs.getInt("Appointment_ID"), rs.getString("Title"),
+                        rs.getString("Description"), rs.getString("Location"), rs.getString("Type"),
+                        TimeUtility.toLocal(rs.getObject("Start", LocalDateTime.class)),
+                        TimeUtility.toLocal(rs.getObject("End", LocalDateTime.class)),
+                        rs.getInt("Customer_ID"), rs.getInt("User_ID"), rs.getInt("Contact_ID")));
+            }
+        }
+        return appointments;
+    }
+}
@@ -0,0 +1,101 @@
+package Benchmarks;
+
+import Helper.IntervalTree;
+import Model.Appointments;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures checking a proposed appointment for overlaps with the customer's existing ones.
+ * <p>
+ * {@link #intervalIndex()} queries per-customer interval trees the way
+ * {@code DAO.AppointmentIndex} does; {@link #linearScan()} walks every appointment the way
+ * the add and update screens did before the index existed. Each invocation checks the next
+ * of a fixed set of pre-generated proposals, so both variants answer the same questions.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConflictDetectionBenchmark {
+    private static final int proposals = 1024;          // Power of two, so the cursor can wrap with a mask
+    private static final int appointmentsPerCustomer = 100;
+
+    @Param({"10000", "100000", "1000000"})
+    public int appointments;
+
+    private List<Appointments> allAppointments;
+    private Map<Integer, IntervalTree<Appointments>> treesByCustomer;
+    private Appointments[] proposed;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(SyntheticData.defaultSeed);
+        int customers = Math.max(1, appointments / appointmentsPerCustomer);
+        allAppointments = data.appointments(appointments, customers);
+        treesByCustomer = new HashMap<>();
+        for (Appointments appointment : allAppointments) {
+            treesByCustomer.computeIfAbsent(appointment.getCustomerID(), id -> new IntervalTree<>())
+                    .insert(toKey(appointment.getStart()), toKey(appointment.getEnd()), appointment.getAppointmentID(), appointment);
+        }
+        proposed = new Appointments[proposals];
+        for (int i = 0; i < proposals; i++) {
+            LocalDateTime start = data.randomStart();
+            proposed[i] = new Appointments(-1, "Proposed", "", "", "", start, start.plusMinutes(30),
+                    1 + data.nextInt(customers), 1, 1);
+        }
+    }
+
+    @Benchmark
+    public List<Appointments> intervalIndex() {
+        Appointments candidate = nextProposal();
+        IntervalTree<Appointments> tree = treesByCustomer.get(candidate.getCustomerID());
+        if (tree == null) {
+            return List.of();
+        }
+        return tree.findOverlapping(toKey(candidate.getStart()), toKey(candidate.getEnd()));
+    }
+
+    @Benchmark
+    public List<Appointments> linearScan() {
+        Appointments candidate = nextProposal();
+        List<Appointments> overlapping = new ArrayList<>();
+        for (Appointments appointment : allAppointments) {
+            if (appointment.getCustomerID() == candidate.getCustomerID()
+                    && candidate.getStart().isBefore(appointment.getEnd())
+                    && candidate.getEnd().isAfter(appointment.getStart())) {
+                overlapping.add(appointment);
+            }
+        }
+        return overlapping;
+    }
+
+    private Appointments nextProposal() {
+        return proposed[cursor++ & (proposals - 1)];
+    }
+
+    private static long toKey(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,91 @@
+package Benchmarks;
+
+import DAO.AppointmentAccess;
+import DAO.ReportAccess;
+import DAO.UserAccess;
+import Helper.JDBC;
+import Model.Appointments;
+import Model.ReportType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures DAO calls end to end, through the connection pool and statement cache, against the
+ * in-memory database profile of {@link JDBC}.
+ * <p>
+ * Each fork starts the pool with {@code scheduler.db.profile=memory}, which creates and seeds
+ * the client_schedule schema at the requested scale, so no MySQL server is needed. Several
+ * threads call the DAO at once, as the background workers of the application do.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class DaoThroughputBenchmark {
+    private static final LocalDateTime firstDay = LocalDateTime.of(2023, 1, 2, 0, 0);
+    private static final int days = 2 * 365;
+
+    @Param({"1000"})
+    public int customers;
+
+    @Param({"10000", "100000"})
+    public int appointments;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        System.setProperty("scheduler.db.profile", "memory");
+        System.setProperty("scheduler.db.seed.customers", String.valueOf(customers));
+        System.setProperty("scheduler.db.seed.appointments", String.valueOf(appointments));
+        System.setProperty("scheduler.db.seed", String.valueOf(SyntheticData.defaultSeed));
+        JDBC.startConnection();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        JDBC.closeConnection();
+    }
+
+    @Benchmark
+    public List<Appointments> weekView() throws SQLException {
+        LocalDateTime from = firstDay.plusDays(ThreadLocalRandom.current().nextInt(days));
+        return AppointmentAccess.getAppointmentsBetween(from, from.plusWeeks(1));
+    }
+
+    @Benchmark
+    public List<Appointments> customerWindow() throws SQLException {
+        LocalDateTime from = firstDay.plusDays(ThreadLocalRandom.current().nextInt(days));
+        return AppointmentAccess.getCustomerAppointmentsBetween(1 + ThreadLocalRandom.current().nextInt(customers), from, from.plusMonths(1));
+    }
+
+    @Benchmark
+    public List<ReportType> totalsByType() throws SQLException {
+        return ReportAccess.getAppointmentTotalsByType();
+    }
+
+    @Benchmark
+    public int login() throws SQLException {
+        return UserAccess.validateUser("test", "test");
+    }
+}
@@ -0,0 +1,132 @@
+package Benchmarks;
+
+import Model.Appointments;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates reproducible appointment data for the benchmarks.
+ * <p>
+ * Everything is derived from a fixed seed, so the same parameters always produce the same rows
+ * and results can be compared across machines and commits without a database dump.
+ * Appointments fall on weekdays between 8am and 10pm, last 15 minutes to 2 hours, and are
+ * spread over customers, users and contacts like the sample data.
+ * </p>
+ */
+public class SyntheticData {
+    /** The seed used by every benchmark unless a test needs its own. */
+    public static final long defaultSeed = 20240101L;
+
+    private static final String[] types = {"Planning Session", "De-Briefing", "Follow-up", "Consultation", "Review", "Training"};
+    private static final String[] locations = {"Phoenix, Arizona", "White Plains, New York", "Montreal, Canada", "London, England"};
+    private static final LocalDate firstDay = LocalDate.of(2023, 1, 2);
+    private static final int days = 3 * 365;
+    private static final int contacts = 3;
+    private static final int users = 2;
+
+    private final SplittableRandom random;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed The seed that determines every generated value.
+     */
+    public SyntheticData(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Generates appointments with consecutive IDs starting at 1.
+     *
+     * @param count     How many appointments to generate.
+     * @param customers How many distinct customers they belong to.
+     * @return The appointments, in ID order.
+     */
+    public List<Appointments> appointments(int count, int customers) {
+        List<Appointments> appointments = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            LocalDateTime start = randomStart();
+            LocalDateTime end = start.plusMinutes(15L * (1 + random.nextInt(8)));
+            appointments.add(new Appointments(id, "Appointment " + id, "Synthetic appointment",
+                    locations[random.nextInt(locations.length)], types[random.nextInt(types.length)], start, end,
+                    1 + random.nextInt(customers), 1 + random.nextInt(users), 1 + random.nextInt(contacts)));
+        }
+        return appointments;
+    }
+
+    /**
+     * Returns a random start time on a weekday, on a quarter hour between 8am and 8pm.
+     *
+     * @return A start time within the generated date range.
+     */
+    public LocalDateTime randomStart() {
+        LocalDate day = firstDay.plusDays(random.nextInt(days));
+        while (day.getDayOfWeek().getValue() > 5) {
+            day = day.plusDays(1);
+        }
+        return LocalDateTime.of(day, LocalTime.of(8, 0)).plusMinutes(15L * random.nextInt(48));
+    }
+
+    /**
+     * Returns a random integer in {@code [0, bound)}.
+     *
+     * @param bound The exclusive upper bound.
+     * @return The next random integer.
+     */
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * Creates the appointments table in an empty database and fills it with the given rows.
+     * Only the columns the application reads are created, plus the audit columns it writes.
+     *
+     * @param connection   A connection to the database.
+     * @param appointments The rows to insert.
+     * @throws SQLException If the table cannot be created or filled.
+     */
+    public static void createAppointmentsTable(Connection connection, List<Appointments> appointments) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS appointments");
+            statement.execute("CREATE TABLE appointments (Appointment_ID INT PRIMARY KEY, Title VARCHAR(50), "
+                    + "Description VARCHAR(50), Location VARCHAR(50), Type VARCHAR(50), Start TIMESTAMP, \"End\" TIMESTAMP, "
+                    + "Create_Date TIMESTAMP, Created_By VARCHAR(50), Last_Update TIMESTAMP, Last_Updated_By VARCHAR(50), "
+                    + "Customer_ID INT, User_ID INT, Contact_ID INT)");
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0));
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO appointments VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?)")) {
+            int batched = 0;
+            for (Appointments appointment : appointments) {
+                ps.setInt(1, appointment.getAppointmentID());
+                ps.setString(2, appointment.getAppointmentTitle());
+                ps.setString(3, appointment.getAppointmentDescription());
+                ps.setString(4, appointment.getAppointmentLocation());
+                ps.setString(5, appointment.getAppointmentType());
+                ps.setTimestamp(6, Timestamp.valueOf(appointment.getStart()));
+                ps.setTimestamp(7, Timestamp.valueOf(appointment.getEnd()));
+                ps.setTimestamp(8, now);
+                ps.setString(9, "bench");
+                ps.setTimestamp(10, now);
+                ps.setString(11, "bench");
+                ps.setInt(12, appointment.getCustomerID());
+                ps.setInt(13, appointment.getUserID());
+                ps.setInt(14, appointment.getContactID());
+                ps.addBatch();
+                if (++batched % 1000 == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package Benchmarks;
+
+import Helper.ZoneConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures converting appointment times from a zone with daylight saving time to UTC.
+ * <p>
+ * {@link #zonedDateTime()} is the plain {@code java.time} conversion, resolving the zone
+ * every time. {@link #zoneConverter()} converts one time with a {@link ZoneConverter}, and
+ * {@link #zoneConverterBulk()} converts all the samples, sorted as an export would read
+ * them, in one call; its score is per call, not per time.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeConversionBenchmark {
+    private static final int samples = 1024;
+    private static final String zoneName = "America/New_York";
+
+    private final LocalDateTime[] localDateTimes = new LocalDateTime[samples];
+    private final long[] sortedSeconds = new long[samples];
+    private final long[] converted = new long[samples];
+    private final ZoneConverter converter = new ZoneConverter(ZoneId.of(zoneName));
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(SyntheticData.defaultSeed);
+        for (int i = 0; i < samples; i++) {
+            localDateTimes[i] = data.randomStart();
+            sortedSeconds[i] = localDateTimes[i].toEpochSecond(ZoneOffset.UTC);
+        }
+        Arrays.sort(sortedSeconds);
+    }
+
+    @Benchmark
+    public LocalDateTime zonedDateTime() {
+        return localDateTimes[cursor++ & (samples - 1)].atZone(ZoneId.of(zoneName))
+                .withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+
+    @Benchmark
+    public LocalDateTime zoneConverter() {
+        return converter.toUtc(localDateTimes[cursor++ & (samples - 1)]);
+    }
+
+    @Benchmark
+    public long[] zoneConverterBulk() {
+        converter.toUtcSeconds(sortedSeconds, converted);
+        return converted;
+    }
+}
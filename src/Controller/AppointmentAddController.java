@@ -1,33 +1,27 @@
 package Controller;
 
 import DAO.AppointmentAccess;
+import DAO.AppointmentIndex;
+import DAO.AsyncAccess;
 import DAO.ContactAccess;
-import DAO.CustomerAccess;
-import DAO.UserAccess;
+import DAO.SlotFinder;
+import Helper.BusinessHours;
 import Helper.General;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import Helper.JDBC;
 import Model.Appointments;
 import Model.Contacts;
-import Model.Customers;
-import Model.Users;
 
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Timestamp;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
 
 import static Helper.General.*;
-import static Helper.JDBC.connection;
-import static Helper.TimeUtility.*;
 
 /**
  * The {@code AppointmentAddController} class is responsible for managing the functionalities
@@ -71,8 +65,13 @@ public class AppointmentAddController {
     @FXML
     private Button addAppointmentsCancel;
     @FXML
+    private Button addAppointmentFindSlot;
+    @FXML
     private TextField addAppointmentType;
 
+    private static final int slotSearchDays = 14;                       // How far ahead Find Free Time looks
+    private static final Duration defaultSlotLength = Duration.ofHours(1);
+
     private class ValidationException extends Exception {
         private ValidationException(String message) {
             super(message);
@@ -93,130 +92,92 @@ public class AppointmentAddController {
 
     /**
      * Handles the event when the user attempts to save a new appointment.
-     * This involves validating all the input fields, handling the database operations,
-     * and transitioning to the main screen upon success.
+     * This involves validating all the input fields, handling the database operations in the
+     * background, and transitioning to the main screen upon success.
+     * The save button stays disabled while the appointment is being saved.
      *
      * @param event An ActionEvent object representing the triggered event.
-     * @throws IOException if there's an issue transitioning to another scene.
      */
 
     @FXML
-    void addAppointmentSave(ActionEvent event) throws IOException {
-
-        try {
-            Connection connection = JDBC.startConnection();
-            if (connection == null) {
-                showAlertAndReturn("Failed to connect to the database.", Alert.AlertType.ERROR);
-                return;
-            }
-
-            // Validation for empty fields
-            if (!validateInputField(addAppointmentTitle, "Appointment Title") ||
-                    !validateInputField(addAppointmentDescription, "Appointment Description") ||
-                    !validateInputField(addAppointmentLocation, "Appointment Location") ||
-                    !validateInputField(addAppointmentType, "Appointment Type") ||
-                    !validateInputField(addAppointmentCustomerID, "Customer ID") ||
-                    !validateInputField(addAppointmentUserID, "User ID") ||
-                    !validateComboBox(addAppointmentContact, "Appointment Contact") ||
-                    !validateComboBox(addAppointmentStartTime, "Start Time") ||
-                    !validateComboBox(addAppointmentEndTime, "End Time") ||
-                    !validateDatePicker(addAppointmentStartDate, "Start Date") ||
-                    !validateDatePicker(addAppointmentEndDate, "End Date") ||
-                    !validateNumeric(addAppointmentCustomerID, "Customer ID") ||
-                    !validateNumeric(addAppointmentUserID, "User ID")) {
-                return;  // Stop execution if any validation fails
-            }
+    void addAppointmentSave(ActionEvent event) {
+
+        // Validation for empty fields
+        if (!validateInputField(addAppointmentTitle, "Appointment Title") ||
+                !validateInputField(addAppointmentDescription, "Appointment Description") ||
+                !validateInputField(addAppointmentLocation, "Appointment Location") ||
+                !validateInputField(addAppointmentType, "Appointment Type") ||
+                !validateInputField(addAppointmentCustomerID, "Customer ID") ||
+                !validateInputField(addAppointmentUserID, "User ID") ||
+                !validateComboBox(addAppointmentContact, "Appointment Contact") ||
+                !validateComboBox(addAppointmentStartTime, "Start Time") ||
+                !validateComboBox(addAppointmentEndTime, "End Time") ||
+                !validateDatePicker(addAppointmentStartDate, "Start Date") ||
+                !validateDatePicker(addAppointmentEndDate, "End Date") ||
+                !validateNumeric(addAppointmentCustomerID, "Customer ID") ||
+                !validateNumeric(addAppointmentUserID, "User ID")) {
+            return;  // Stop execution if any validation fails
+        }
 
+        // Read the form here; the controls must not be touched from the background thread
+        DateTimeFormatter minHourFormat = DateTimeFormatter.ofPattern("HH:mm");
+        LocalDateTime dateTimeStart = LocalDateTime.of(addAppointmentStartDate.getValue(), LocalTime.parse(addAppointmentStartTime.getValue(), minHourFormat));
+        LocalDateTime dateTimeEnd = LocalDateTime.of(addAppointmentEndDate.getValue(), LocalTime.parse(addAppointmentEndTime.getValue(), minHourFormat));
+        Appointments form = new Appointments(0, addAppointmentTitle.getText(),
+                addAppointmentDescription.getText(), addAppointmentLocation.getText(), addAppointmentType.getText(),
+                dateTimeStart, dateTimeEnd,
+                Integer.parseInt(addAppointmentCustomerID.getText()), Integer.parseInt(addAppointmentUserID.getText()), 0);
+        String contactName = addAppointmentContact.getValue();
+        addAppointmentSave.setDisable(true);
+
+        AsyncAccess.load(() -> handleDatabaseOperations(form, contactName), added -> {
+            showAlertAndReturn("Appointment added successfully!", Alert.AlertType.INFORMATION);
             try {
-                handleDatabaseOperations();
-                General.transitionToScene("../View/MainScreen.fxml");
-            } catch (ValidationException e) {
-                showAlertAndReturn(e.getMessage(), Alert.AlertType.ERROR);
+                General.showMainScreen();
+            } catch (IOException e) {
+                e.printStackTrace();
             }
-        } catch (SQLException throwables) {
-            showAlertAndReturn("Database error. Please try again.", Alert.AlertType.ERROR);
-            throwables.printStackTrace();
-        }
+        }, error -> {
+            addAppointmentSave.setDisable(false);
+            if (error instanceof ValidationException) {
+                showAlertAndReturn(error.getMessage(), Alert.AlertType.ERROR);
+            } else {
+                showAlertAndReturn("Database error. Please try again.", Alert.AlertType.ERROR);
+                error.printStackTrace();
+            }
+        });
     }
 
     /**
      * Responsible for all database operations related to appointment addition. It performs:
-     * 1. Checking for overlapping appointments.
-     * 2. Verifying business hours and days.
+     * 1. Checking for overlapping appointments against the {@link AppointmentIndex}, and again
+     * against the database when the appointment is inserted.
+     * 2. Verifying business hours and days, and that the customer exists.
      * 3. Inserting the new appointment record into the database.
+     * Runs on a background thread, so it only uses the values read from the form.
      *
+     * @param form        The appointment as entered, without its appointment and contact IDs.
+     * @param contactName The name of the chosen contact.
+     * @return The appointment that was added.
      * @throws SQLException if any SQL operation fails during database operations.
      */
-    private void handleDatabaseOperations() throws SQLException, ValidationException {
-
-            ObservableList<Customers> getAllCustomers = CustomerAccess.getAllCustomers(connection);
-            ObservableList<Integer> storeCustomerIDs = FXCollections.observableArrayList();
-            ObservableList<UserAccess> getAllUsers = UserAccess.getAllUsers();
-            ObservableList<Integer> storeUserIDs = FXCollections.observableArrayList();
-            ObservableList<Appointments> getAllAppointments = AppointmentAccess.getAllAppointments();
-
-            getAllCustomers.stream().map(Customers::getCustomerID).forEach(storeCustomerIDs::add);
-            getAllUsers.stream().map(Users::getUserID).forEach(storeUserIDs::add);
-
-            LocalDate localDateEnd = addAppointmentEndDate.getValue();
-            LocalDate localDateStart = addAppointmentStartDate.getValue();
-
-            DateTimeFormatter minHourFormat = DateTimeFormatter.ofPattern("HH:mm");
-            String appointmentStartDate = addAppointmentStartDate.getValue().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            String appointmentStartTime = addAppointmentStartTime.getValue();
-
-            String endDate = addAppointmentEndDate.getValue().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            String endTime = addAppointmentEndTime.getValue();
-
-            System.out.println("thisDate + thisStart " + appointmentStartDate + " " + appointmentStartTime + ":00");
-            String startUTC = convertTimeDateUTC(appointmentStartDate + " " + appointmentStartTime + ":00");
-            String endUTC = convertTimeDateUTC(endDate + " " + endTime + ":00");
-
-            LocalTime localTimeStart = LocalTime.parse(addAppointmentStartTime.getValue(), minHourFormat);
-            LocalTime LocalTimeEnd = LocalTime.parse(addAppointmentEndTime.getValue(), minHourFormat);
-
-            LocalDateTime dateTimeStart = LocalDateTime.of(localDateStart, localTimeStart);
-            LocalDateTime dateTimeEnd = LocalDateTime.of(localDateEnd, LocalTimeEnd);
-
-            ZonedDateTime zoneDtStart = ZonedDateTime.of(dateTimeStart, ZoneId.systemDefault());
-            ZonedDateTime zoneDtEnd = ZonedDateTime.of(dateTimeEnd, ZoneId.systemDefault());
-
-            ZonedDateTime convertStartEST = zoneDtStart.withZoneSameInstant(ZoneId.of("America/New_York"));
-            ZonedDateTime convertEndEST = zoneDtEnd.withZoneSameInstant(ZoneId.of("America/New_York"));
-
-            LocalTime startAppointmentTimeToCheck = convertStartEST.toLocalTime();
-            LocalTime endAppointmentTimeToCheck = convertEndEST.toLocalTime();
-
-            DayOfWeek startAppointmentDayToCheck = convertStartEST.toLocalDate().getDayOfWeek();
-            DayOfWeek endAppointmentDayToCheck = convertEndEST.toLocalDate().getDayOfWeek();
-
-            int startAppointmentDayToCheckInt = startAppointmentDayToCheck.getValue();
-            int endAppointmentDayToCheckInt = endAppointmentDayToCheck.getValue();
+    private Appointments handleDatabaseOperations(Appointments form, String contactName) throws SQLException, ValidationException {
 
-            int workWeekStart = DayOfWeek.MONDAY.getValue();
-            int workWeekEnd = DayOfWeek.FRIDAY.getValue();
+            LocalDateTime dateTimeStart = form.getStart();
+            LocalDateTime dateTimeEnd = form.getEnd();
 
-            LocalTime estBusinessStart = LocalTime.of(8, 0, 0);
-            LocalTime estBusinessEnd = LocalTime.of(22, 0, 0);
-
-
-            if (startAppointmentDayToCheckInt < workWeekStart || startAppointmentDayToCheckInt > workWeekEnd || endAppointmentDayToCheckInt < workWeekStart || endAppointmentDayToCheckInt > workWeekEnd) {
+            BusinessHours businessHours = BusinessHours.standard();
+            if (!businessHours.isBusinessDay(dateTimeStart) || !businessHours.isBusinessDay(dateTimeEnd)) {
                 System.out.println("day is outside of business hours");
                 throw new ValidationException("The day is outside of business days: Monday - Friday");
             }
 
-            if (startAppointmentTimeToCheck.isBefore(estBusinessStart) || startAppointmentTimeToCheck.isAfter(estBusinessEnd) || endAppointmentTimeToCheck.isBefore(estBusinessStart) || endAppointmentTimeToCheck.isAfter(estBusinessEnd)) {
+            if (!businessHours.isOpen(dateTimeStart, dateTimeEnd)) {
                 System.out.println("Time is outside of business hours.");
                 throw new ValidationException("Time is out of business hours: 8am - 10pm.");
             }
 
-            int newAppointmentID = Integer.parseInt(String.valueOf((int) (Math.random() * 100)));
-            int customerID = Integer.parseInt(addAppointmentCustomerID.getText());
-
-            if (!storeCustomerIDs.contains(customerID)) {
-                System.out.println("The Customer ID does not exist.");
-                throw new ValidationException("The Customer ID does not exist.");
-            }
+            int customerID = form.getCustomerID();
 
             if (dateTimeStart.isAfter(dateTimeEnd)) {
                 System.out.println("Appointment's start time is after its end time.");
@@ -227,60 +188,79 @@ public class AppointmentAddController {
                 System.out.println("Appointment's start and end time are the same.");
                 throw new ValidationException("Appointment's start time and end time are the same.");
             }
-            for (Appointments appointment : getAllAppointments) {
-                LocalDateTime checkStart = appointment.getStart();
-                LocalDateTime checkEnd = appointment.getEnd();
-
-                if (customerID == appointment.getCustomerID() && newAppointmentID != appointment.getAppointmentID()) {
-                    if (dateTimeStart.isBefore(checkEnd) && dateTimeEnd.isAfter(checkStart)) {
-                        System.out.println("Appointment's time overlaps with an existing appointment's time.");
-                        throw new ValidationException("Appointment's time overlaps with an existing appointment's time.");
-                    }
-                }
-
-                if ((customerID == appointment.getCustomerID()) && (newAppointmentID != appointment.getAppointmentID()) &&
-                        (dateTimeStart.isBefore(checkStart)) && (dateTimeEnd.isAfter(checkEnd))) {
-                    System.out.println("Appointment's time overlaps with an existing appointment's time.");
-                    throw new ValidationException("Appointment's time overlaps with an existing appointment's time.");
-                }
-
-                if ((customerID == appointment.getCustomerID()) && (newAppointmentID != appointment.getAppointmentID()) &&
-                        (dateTimeStart.isAfter(checkStart)) && (dateTimeStart.isBefore(checkEnd))) {
-                    System.out.println("The start time overlaps with an existing appointment.");
-                    throw new ValidationException("The start time overlaps with an existing appointment.");
-                }
+            if (!AppointmentIndex.findOverlapping(customerID, dateTimeStart, dateTimeEnd, -1).isEmpty()) {
+                System.out.println("Appointment's time overlaps with an existing appointment's time.");
+                throw new ValidationException("Appointment's time overlaps with an existing appointment's time.");
+            }
 
-                if (customerID == appointment.getCustomerID() && (newAppointmentID != appointment.getAppointmentID()) &&
-                        (dateTimeEnd.isAfter(checkStart)) && (dateTimeEnd.isBefore(checkEnd))) {
-                    System.out.println("The end time overlaps with an existing appointment.");
-                    throw new ValidationException("The end time overlaps with an existing appointment.");
-                }
+            int contactID = Integer.parseInt(ContactAccess.findContactID(contactName));
+            int newAppointmentID = AppointmentAccess.nextAppointmentID();
 
+            Appointments newAppointment = new Appointments(newAppointmentID, form.getAppointmentTitle(),
+                    form.getAppointmentDescription(), form.getAppointmentLocation(), form.getAppointmentType(),
+                    dateTimeStart, dateTimeEnd,
+                    customerID, form.getUserID(), contactID);
+            try {
+                AppointmentAccess.addAppointment(newAppointment);
+            } catch (AppointmentAccess.UnknownCustomerException e) {
+                // Checked by the insert's transaction, which locks the customer's row anyway
+                throw new ValidationException("The Customer ID does not exist.");
+            } catch (AppointmentAccess.OverlapException e) {
+                // Booked from another workstation since the index was loaded
+                throw new ValidationException("Appointment's time overlaps with an existing appointment's time.");
             }
+            return newAppointment;
+        }
 
-            String insertStatement = "INSERT INTO appointments (Appointment_ID, Title, Description, Location, Type, Start, End, Create_Date, Created_By, Last_Update, Last_Updated_By, Customer_ID, User_ID, Contact_ID) VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
-
-            JDBC.setPreparedStatement(JDBC.getConnection(), insertStatement);
-            PreparedStatement ps = JDBC.getPreparedStatement();
-            ps.setInt(1, newAppointmentID);
-            ps.setString(2, addAppointmentTitle.getText());
-            ps.setString(3, addAppointmentDescription.getText());
-            ps.setString(4, addAppointmentLocation.getText());
-            ps.setString(5, addAppointmentType.getText());
-            ps.setTimestamp(6, Timestamp.valueOf(startUTC));
-            ps.setTimestamp(7, Timestamp.valueOf(endUTC));
-            ps.setTimestamp(8, Timestamp.valueOf(LocalDateTime.now()));
-            ps.setString(9, "admin");
-            ps.setTimestamp(10, Timestamp.valueOf(LocalDateTime.now()));
-            ps.setInt(11, 1);
-            ps.setInt(12, Integer.parseInt(addAppointmentCustomerID.getText()));
-            ps.setInt(13, Integer.parseInt(addAppointmentUserID.getText()));
-            ps.setInt(14, Integer.parseInt(ContactAccess.findContactID(addAppointmentContact.getValue())));
 
-            ps.execute();
-            showAlertAndReturn("Appointment added successfully!", Alert.AlertType.INFORMATION);
+    /**
+     * Fills in the first time, from the chosen start date or now and over the next two weeks,
+     * when both the customer and the contact are free within business hours. The length is
+     * taken from the chosen start and end times, or one hour if they are not set.
+     *
+     * @param event An ActionEvent object representing the triggered event.
+     */
+    @FXML
+    void addAppointmentFindSlot(ActionEvent event) {
+        if (!validateInputField(addAppointmentCustomerID, "Customer ID") ||
+                !validateNumeric(addAppointmentCustomerID, "Customer ID") ||
+                !validateComboBox(addAppointmentContact, "Appointment Contact")) {
+            return;
         }
-
+        int customerID = Integer.parseInt(addAppointmentCustomerID.getText());
+        String contactName = addAppointmentContact.getValue();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = addAppointmentStartDate.getValue() == null || addAppointmentStartDate.getValue().isBefore(now.toLocalDate())
+                ? now : addAppointmentStartDate.getValue().atStartOfDay();
+        Duration length = defaultSlotLength;
+        if (addAppointmentStartTime.getValue() != null && addAppointmentEndTime.getValue() != null) {
+            Duration chosen = Duration.between(LocalTime.parse(addAppointmentStartTime.getValue()), LocalTime.parse(addAppointmentEndTime.getValue()));
+            if (!chosen.isNegative() && !chosen.isZero()) {
+                length = chosen;
+            }
+        }
+        Duration slotLength = length;
+        addAppointmentFindSlot.setDisable(true);
+
+        AsyncAccess.load(() -> SlotFinder.findFreeSlots(customerID, Integer.parseInt(ContactAccess.findContactID(contactName)),
+                slotLength, from, from.plusDays(slotSearchDays), 1), slots -> {
+            addAppointmentFindSlot.setDisable(false);
+            if (slots.isEmpty()) {
+                showAlertAndReturn("No free time in the next " + slotSearchDays + " days.", Alert.AlertType.INFORMATION);
+                return;
+            }
+            LocalDateTime start = slots.get(0);
+            LocalDateTime end = start.plus(slotLength);
+            addAppointmentStartDate.setValue(start.toLocalDate());
+            addAppointmentStartTime.setValue(start.toLocalTime().toString());
+            addAppointmentEndDate.setValue(end.toLocalDate());
+            addAppointmentEndTime.setValue(end.toLocalTime().toString());
+        }, error -> {
+            error.printStackTrace();
+            addAppointmentFindSlot.setDisable(false);
+            showAlertAndReturn("Database error. Please try again.", Alert.AlertType.ERROR);
+        });
+    }
 
     /**
      * Handles the event of canceling the addition of a new appointment.
@@ -295,7 +275,7 @@ public class AppointmentAddController {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "Do you want to cancel without saving?");
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            General.transitionToScene("../View/MainScreen.fxml");
+            General.showMainScreen();
         }
     }
 
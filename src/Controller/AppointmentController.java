@@ -1,25 +1,40 @@
 package Controller;
 
 import DAO.AppointmentAccess;
+import DAO.AppointmentImport;
+import DAO.AppointmentIndex;
+import DAO.AsyncAccess;
+import DAO.CustomerAccess;
+import Helper.ChangeFeed;
 import Helper.General;
 import Helper.JDBC;
 import Model.Appointments;
+import Model.Customers;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.geometry.Orientation;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
+import java.io.File;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 
@@ -50,6 +65,27 @@ public class AppointmentController {
     @FXML private TableColumn<?, ?> tableUserID;
     @FXML private Button deleteAppointment;
     @FXML private Button updateAppointment;
+    @FXML private Button importAppointments;
+    @FXML private TextField appointmentSearch;
+
+    private static final int appointmentPageSize = 200;     // Rows fetched per page in the "All" view
+    private static final double loadMoreThreshold = 0.9;    // Scroll position (0 to 1) that triggers the next page
+    private static final int searchLimit = 200;             // Most rows shown for a search
+    private boolean pagedMode = false;                      // True while the table shows the paged "All" view
+    private boolean lastPageLoaded = false;                 // True once a page came back short
+    private boolean pageLoading = false;                    // True while a page request is in flight
+    private int viewGeneration = 0;                         // Bumped on every view change so stale results are dropped
+    private LocalDateTime viewFrom;                         // Window of the week/month view; null in the "All" view
+    private LocalDateTime viewTo;
+    private String searchQuery;                             // The search shown in the table; null while a view is shown
+    private static final Comparator<Appointments> viewOrder =
+            Comparator.comparing(Appointments::getStart).thenComparingInt(Appointments::getAppointmentID);
+    private final Map<Integer, Appointments> rowsById = new HashMap<>();   // The row shown for each appointment, kept in step with the table
+    private final ListChangeListener<Appointments> rowTracker = this::trackRowChanges;
+
+    // Held in fields because the change feeds only keep weak references to their listeners
+    private final ChangeFeed.Listener<Appointments> appointmentChanges = this::applyAppointmentChange;
+    private final ChangeFeed.Listener<Customers> customerChanges = this::applyCustomerChange;
 
 
     /**
@@ -58,7 +94,19 @@ public class AppointmentController {
     @FXML
     public void initialize() {
         configureTableColumns();
+        watchForScrollToEnd();
+        trackRows(null, allAppointmentsTable.getItems());
+        allAppointmentsTable.itemsProperty().addListener((obs, oldItems, newItems) -> trackRows(oldItems, newItems));
+        AppointmentAccess.getChanges().subscribe(appointmentChanges);
+        CustomerAccess.getChanges().subscribe(customerChanges);
         loadAllAppointments();
+        appointmentSearch.textProperty().addListener((obs, oldText, newText) -> {
+            if (!newText.isBlank()) {
+                searchAppointments(newText);
+            } else if (searchQuery != null) {
+                showSelectedView();
+            }
+        });
         deleteAppointment.setDisable(true);
         updateAppointment.setDisable(true);
 
@@ -121,6 +169,7 @@ public class AppointmentController {
 
     /**
      * Deletes the selected appointment after user confirmation.
+     * The deletion runs in the background with the delete button disabled.
      *
      * @param event The UI action that triggered this method.
      * @throws Exception If there's an error during deletion or database access.
@@ -128,15 +177,21 @@ public class AppointmentController {
     @FXML
     void deleteAppointment(ActionEvent event) throws Exception {
         try {
-            Connection connection = JDBC.getConnection();
             int deleteAppointmentID = allAppointmentsTable.getSelectionModel().getSelectedItem().getAppointmentID();
             String deleteAppointmentType = allAppointmentsTable.getSelectionModel().getSelectedItem().getAppointmentType();
             Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "Delete the selected appointment with appointment id: " + deleteAppointmentID + " and appointment type " + deleteAppointmentType);
             Optional<ButtonType> confirmation = alert.showAndWait();
             if (confirmation.isPresent() && confirmation.get() == ButtonType.OK) {
-                AppointmentAccess.deleteAppointment(deleteAppointmentID, connection);
-                ObservableList<Appointments> allAppointmentsList = AppointmentAccess.getAllAppointments();
-                allAppointmentsTable.setItems(allAppointmentsList);
+                deleteAppointment.setDisable(true);
+                AsyncAccess.load(() -> {
+                    try (Connection connection = JDBC.getConnection()) {
+                        return AppointmentAccess.deleteAppointment(deleteAppointmentID, connection);
+                    }
+                }, deleted -> deleteAppointment.setDisable(allAppointmentsTable.getSelectionModel().isEmpty()), error -> {
+                    error.printStackTrace();
+                    deleteAppointment.setDisable(allAppointmentsTable.getSelectionModel().isEmpty());
+                    General.showAlertAndReturn("Database error. Please try again.", Alert.AlertType.ERROR);
+                });
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -144,84 +199,311 @@ public class AppointmentController {
     }
 
     /**
-     * Filters and displays appointments from the past week.
+     * Imports appointments from a CSV file chosen by the user, then reloads the table.
+     * The import runs in the background; a summary is shown when it finishes.
+     *
+     * @param event The UI action that triggered this method.
+     */
+    @FXML
+    void importAppointments(ActionEvent event) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Appointments");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showOpenDialog(((Node) event.getSource()).getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        importAppointments.setDisable(true);
+        AsyncAccess.load(() -> AppointmentImport.importCsv(file.toPath()), result -> {
+            importAppointments.setDisable(false);
+            StringBuilder summary = new StringBuilder("Imported " + result.getImported() + " appointments; rejected " + result.getRejected() + ".");
+            result.getRejections().forEach(rejection -> summary.append(System.lineSeparator()).append(rejection));
+            General.showAlertAndReturn(summary.toString(), Alert.AlertType.INFORMATION);
+            refreshView();
+        }, error -> {
+            importAppointments.setDisable(false);
+            error.printStackTrace();
+            General.showAlertAndReturn("Import failed: " + error.getMessage(), Alert.AlertType.ERROR);
+            refreshView();
+        });
+    }
+
+    /**
+     * Displays appointments within a week of the current time.
      *
      * @param event The UI action that triggered this method.
      * @throws SQLException If there's an error accessing the database.
      */
     @FXML
     void appointmentWeekSelected(ActionEvent event) throws SQLException {
-        try {
-            ObservableList<Appointments> allAppointmentsList = AppointmentAccess.getAllAppointments();
-            ObservableList<Appointments> appointmentsWeek = FXCollections.observableArrayList();
-            LocalDateTime weekStart = LocalDateTime.now().minusWeeks(1);
-            LocalDateTime weekEnd = LocalDateTime.now().plusWeeks(1);
-            if (allAppointmentsList != null)
-                allAppointmentsList.forEach(appointment -> {
-                    if (appointment.getEnd().isAfter(weekStart) && appointment.getEnd().isBefore(weekEnd)) {
-                        appointmentsWeek.add(appointment);
-                    }
-                    allAppointmentsTable.setItems(appointmentsWeek);
-                });
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        showSelectedView();
     }
 
     /**
-     * Filters and displays appointments from the past month.
+     * Displays appointments within a month of the current time.
      *
      * @param event The UI action that triggered this method.
      * @throws SQLException If there's an error accessing the database.
      */
     @FXML
     void appointmentMonthSelected(ActionEvent event) throws SQLException {
-        try {
-            ObservableList<Appointments> allAppointmentsList = AppointmentAccess.getAllAppointments();
-            ObservableList<Appointments> appointmentsMonth = FXCollections.observableArrayList();
-            LocalDateTime currentMonthStart = LocalDateTime.now().minusMonths(1);
-            LocalDateTime currentMonthEnd = LocalDateTime.now().plusMonths(1);
-            if (allAppointmentsList != null)
-                allAppointmentsList.forEach(appointment -> {
-                    if (appointment.getEnd().isAfter(currentMonthStart) && appointment.getEnd().isBefore(currentMonthEnd)) {
-                        appointmentsMonth.add(appointment);
-                    }
-                    allAppointmentsTable.setItems(appointmentsMonth);
-                });
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        showSelectedView();
     }
 
     /**
-     * Displays all appointments without any filtering.
+     * Displays all appointments without any filtering, one page at a time.
      *
      * @param event The UI action that triggered this method.
      * @throws SQLException If there's an error accessing the database.
      */
     @FXML
     void appointmentAllSelected(ActionEvent event) throws SQLException {
-        try {
-            ObservableList<Appointments> allAppointmentsList = AppointmentAccess.getAllAppointments();
-            if (allAppointmentsList != null)
-                for (Model.Appointments appointment : allAppointmentsList) {
-                    allAppointmentsTable.setItems(allAppointmentsList);
-                }
-        } catch (Exception e) {
-            e.printStackTrace();
+        showSelectedView();
+    }
+
+    /**
+     * Clears the search box and shows the view of the selected radio button.
+     */
+    private void showSelectedView() {
+        searchQuery = null;
+        appointmentSearch.clear();
+        if (appointmentWeekRadio.isSelected()) {
+            loadView(LocalDateTime.now().minusWeeks(1), LocalDateTime.now().plusWeeks(1));
+        } else if (appointmentMonthRadio.isSelected()) {
+            loadView(LocalDateTime.now().minusMonths(1), LocalDateTime.now().plusMonths(1));
+        } else {
+            loadAllAppointments();
         }
     }
 
     /**
-     * Fetches and displays all appointments in the table.
+     * Reloads the search results, or the selected view if there is no search.
+     */
+    private void refreshView() {
+        if (searchQuery != null) {
+            searchAppointments(searchQuery);
+        } else {
+            showSelectedView();
+        }
+    }
+
+    /**
+     * Replaces the table contents with the appointments that match a search, found in the
+     * {@link AppointmentIndex} off the JavaFX thread and ordered like the other views.
+     *
+     * @param query The words typed into the search box.
+     */
+    private void searchAppointments(String query) {
+        int generation = ++viewGeneration;
+        searchQuery = query;
+        viewFrom = null;
+        viewTo = null;
+        pagedMode = false;
+        AsyncAccess.load(() -> AppointmentIndex.search(query, searchLimit), found -> {
+            if (generation == viewGeneration) {
+                ObservableList<Appointments> results = FXCollections.observableArrayList(found);
+                results.sort(viewOrder);
+                allAppointmentsTable.setItems(results);
+                showLoaded();
+            }
+        }, Throwable::printStackTrace);
+    }
+
+    /**
+     * Resets the table to the paged "All" view and loads its first page.
+     * Later pages are fetched by {@link #loadNextAppointmentPage()} as the user scrolls.
      */
     private void loadAllAppointments() {
-        try {
-            ObservableList<Appointments> allAppointmentsList = AppointmentAccess.getAllAppointments();
-            allAppointmentsTable.setItems(allAppointmentsList);
-        } catch (Exception e) {
-            e.printStackTrace();
+        viewGeneration++;
+        viewFrom = null;
+        viewTo = null;
+        pagedMode = true;
+        lastPageLoaded = false;
+        pageLoading = false;
+        showLoading();
+        loadNextAppointmentPage();
+    }
+
+    /**
+     * Appends the page that follows the last appointment in the table, unless the
+     * table is not in the paged view, a page is already loading, or every page has been loaded.
+     * The page is fetched off the JavaFX thread.
+     */
+    private void loadNextAppointmentPage() {
+        if (!pagedMode || lastPageLoaded || pageLoading) {
+            return;
+        }
+        pageLoading = true;
+        int generation = viewGeneration;
+        ObservableList<Appointments> loaded = allAppointmentsTable.getItems();
+        Appointments last = loaded.isEmpty() ? null : loaded.get(loaded.size() - 1);
+        AsyncAccess.load(() -> last == null
+                        ? AppointmentAccess.getAppointmentsPage(null, 0, appointmentPageSize)
+                        : AppointmentAccess.getAppointmentsPage(last.getStart(), last.getAppointmentID(), appointmentPageSize),
+                page -> {
+                    if (generation != viewGeneration) {
+                        return;
+                    }
+                    pageLoading = false;
+                    lastPageLoaded = page.size() < appointmentPageSize;
+                    loaded.addAll(page);
+                    showLoaded();
+                },
+                error -> {
+                    pageLoading = false;
+                    error.printStackTrace();
+                });
+    }
+
+    /**
+     * Replaces the table contents with the appointments that overlap a window, loaded off the
+     * JavaFX thread. Leaves the paged "All" view.
+     *
+     * @param from The start of the window.
+     * @param to   The end of the window.
+     */
+    private void loadView(LocalDateTime from, LocalDateTime to) {
+        int generation = ++viewGeneration;
+        viewFrom = from;
+        viewTo = to;
+        pagedMode = false;
+        showLoading();
+        AsyncAccess.load(() -> AppointmentAccess.getAppointmentsBetween(from, to), appointments -> {
+            if (generation == viewGeneration) {
+                allAppointmentsTable.setItems(appointments);
+                showLoaded();
+            }
+        }, Throwable::printStackTrace);
+    }
+
+    /**
+     * Patches the one row affected by an appointment change instead of reloading the view.
+     * Rows stay ordered by start; a row that falls outside the current view or search, or after
+     * the last page loaded so far, is left for the view's own queries.
+     */
+    private void applyAppointmentChange(ChangeFeed.Kind kind, int appointmentID, Appointments appointment) {
+        ObservableList<Appointments> items = allAppointmentsTable.getItems();
+        int index = indexOfAppointment(items, appointmentID);
+        boolean belongs = appointment != null && belongsInView(items, appointment);
+
+        if (index >= 0 && belongs && isInOrderAt(items, index, appointment)) {
+            items.set(index, appointment);
+            return;
+        }
+        if (index >= 0) {
+            items.remove(index);
+        }
+        if (belongs) {
+            int position = Collections.binarySearch(items, appointment, viewOrder);
+            items.add(position < 0 ? -position - 1 : position, appointment);
+        }
+    }
+
+    /**
+     * Drops the rows of a deleted customer, whose appointments were deleted with them.
+     */
+    private void applyCustomerChange(ChangeFeed.Kind kind, int customerID, Customers customer) {
+        if (kind == ChangeFeed.Kind.REMOVED) {
+            allAppointmentsTable.getItems().removeIf(appointment -> appointment.getCustomerID() == customerID);
+        }
+    }
+
+    /**
+     * Finds the row of an appointment by looking up the row shown for its ID and then
+     * searching for it in the ordered items.
+     *
+     * @return The row's index, or -1 if the appointment is not shown.
+     */
+    private int indexOfAppointment(List<Appointments> items, int appointmentID) {
+        Appointments row = rowsById.get(appointmentID);
+        if (row == null) {
+            return -1;
         }
+        int index = Collections.binarySearch(items, row, viewOrder);
+        return index >= 0 && items.get(index) == row ? index : -1;
+    }
+
+    /**
+     * Moves the row tracking from the table's old items to its new ones.
+     */
+    private void trackRows(ObservableList<Appointments> oldItems, ObservableList<Appointments> newItems) {
+        if (oldItems != null) {
+            oldItems.removeListener(rowTracker);
+        }
+        rowsById.clear();
+        if (newItems != null) {
+            newItems.forEach(appointment -> rowsById.put(appointment.getAppointmentID(), appointment));
+            newItems.addListener(rowTracker);
+        }
+    }
+
+    /**
+     * Keeps {@link #rowsById} in step with rows added to or removed from the table.
+     */
+    private void trackRowChanges(ListChangeListener.Change<? extends Appointments> change) {
+        while (change.next()) {
+            change.getRemoved().forEach(appointment -> rowsById.remove(appointment.getAppointmentID(), appointment));
+            change.getAddedSubList().forEach(appointment -> rowsById.put(appointment.getAppointmentID(), appointment));
+        }
+    }
+
+    /**
+     * Returns true if an appointment should be shown by the current view.
+     */
+    private boolean belongsInView(List<Appointments> items, Appointments appointment) {
+        if (searchQuery != null) {
+            return AppointmentIndex.matches(appointment, searchQuery);
+        }
+        if (viewFrom != null) {
+            return appointment.getStart().isBefore(viewTo) && appointment.getEnd().isAfter(viewFrom);
+        }
+        if (pagedMode && !lastPageLoaded) {
+            return !items.isEmpty() && viewOrder.compare(appointment, items.get(items.size() - 1)) < 0;
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if an appointment can replace the row at an index without breaking the order.
+     */
+    private boolean isInOrderAt(List<Appointments> items, int index, Appointments appointment) {
+        return (index == 0 || viewOrder.compare(items.get(index - 1), appointment) < 0)
+                && (index == items.size() - 1 || viewOrder.compare(appointment, items.get(index + 1)) < 0);
+    }
+
+    /**
+     * Empties the table and shows a loading message in its place.
+     */
+    private void showLoading() {
+        allAppointmentsTable.setItems(FXCollections.observableArrayList());
+        allAppointmentsTable.setPlaceholder(new Label("Loading appointments..."));
+    }
+
+    /**
+     * Restores the message shown when a loaded view has no appointments.
+     */
+    private void showLoaded() {
+        allAppointmentsTable.setPlaceholder(new Label("No appointments found."));
+    }
+
+    /**
+     * Loads the next page when the table's vertical scroll bar nears the end.
+     * The scroll bar only exists once the table's skin has been created.
+     */
+    private void watchForScrollToEnd() {
+        allAppointmentsTable.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            for (Node node : allAppointmentsTable.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                    ScrollBar scrollBar = (ScrollBar) node;
+                    scrollBar.valueProperty().addListener((valueObs, oldValue, newValue) -> {
+                        if (newValue.doubleValue() >= scrollBar.getMax() * loadMoreThreshold) {
+                            loadNextAppointmentPage();
+                        }
+                    });
+                }
+            }
+        });
     }
 
 }
\ No newline at end of file
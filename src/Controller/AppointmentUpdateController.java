@@ -1,32 +1,25 @@
 package Controller;
 
 import DAO.AppointmentAccess;
+import DAO.AppointmentIndex;
+import DAO.AsyncAccess;
 import DAO.ContactAccess;
-import DAO.CustomerAccess;
-import DAO.UserAccess;
+import Helper.BusinessHours;
 import Helper.General;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import Helper.JDBC;
 import Model.Appointments;
 import Model.Contacts;
-import Model.Customers;
-import Model.Users;
 
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Timestamp;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 
 import static Helper.General.*;
-import static Helper.JDBC.connection;
-import static Helper.TimeUtility.convertTimeDateUTC;
 
 /**
  * Controller for updating appointments.
@@ -124,11 +117,9 @@ public class AppointmentUpdateController {
 
     private String getContactNameById(int contactId) {
         try {
-            ObservableList<Contacts> contacts = ContactAccess.getAllContacts();
-            for (Contacts contact : contacts) {
-                if (contact.getId() == contactId) {
-                    return contact.getContactName();
-                }
+            Contacts contact = ContactAccess.getContactById(contactId);
+            if (contact != null) {
+                return contact.getContactName();
             }
         } catch (SQLException e) {
             System.err.println("Error fetching contact name: " + e.getMessage());
@@ -159,118 +150,84 @@ public class AppointmentUpdateController {
 
     /**
      * Event handler for saving the updated appointment details.
+     * The appointment is checked and saved in the background, with the save button disabled.
      *
      * @param event The action event associated with the save operation.
      */
     @FXML
-    void updateAppointmentSave(ActionEvent event) throws IOException {
-
-        try {
-            Connection connection = JDBC.startConnection();
-            if (connection == null) {
-                showAlertAndReturn("Failed to connect to the database.", Alert.AlertType.ERROR);
-                return;
-            }
-
-            // Validation for empty fields
-            if (!validateInputField(updateAppointmentTitle, "Appointment Title") ||
-                    !validateInputField(updateAppointmentDescription, "Appointment Description") ||
-                    !validateInputField(updateAppointmentLocation, "Appointment Location") ||
-                    !validateInputField(updateAppointmentType, "Appointment Type") ||
-                    !validateInputField(updateAppointmentCustomerID, "Customer ID") ||
-                    !validateInputField(updateAppointmentUserID, "User ID") ||
-                    !validateComboBox(updateAppointmentContact, "Appointment Contact") ||
-                    !validateComboBox(updateAppointmentStartTime, "Start Time") ||
-                    !validateComboBox(updateAppointmentEndTime, "End Time") ||
-                    !validateDatePicker(updateAppointmentStartDate, "Start Date") ||
-                    !validateDatePicker(updateAppointmentEndDate, "End Date") ||
-                    !validateNumeric(updateAppointmentCustomerID, "Customer ID") ||
-                    !validateNumeric(updateAppointmentUserID, "User ID")) {
-                return;  // Stop execution if any validation fails
-            }
+    void updateAppointmentSave(ActionEvent event) {
+
+        // Validation for empty fields
+        if (!validateInputField(updateAppointmentTitle, "Appointment Title") ||
+                !validateInputField(updateAppointmentDescription, "Appointment Description") ||
+                !validateInputField(updateAppointmentLocation, "Appointment Location") ||
+                !validateInputField(updateAppointmentType, "Appointment Type") ||
+                !validateInputField(updateAppointmentCustomerID, "Customer ID") ||
+                !validateInputField(updateAppointmentUserID, "User ID") ||
+                !validateComboBox(updateAppointmentContact, "Appointment Contact") ||
+                !validateComboBox(updateAppointmentStartTime, "Start Time") ||
+                !validateComboBox(updateAppointmentEndTime, "End Time") ||
+                !validateDatePicker(updateAppointmentStartDate, "Start Date") ||
+                !validateDatePicker(updateAppointmentEndDate, "End Date") ||
+                !validateNumeric(updateAppointmentCustomerID, "Customer ID") ||
+                !validateNumeric(updateAppointmentUserID, "User ID")) {
+            return;  // Stop execution if any validation fails
+        }
 
+        // Read the form here; the controls must not be touched from the background thread
+        DateTimeFormatter minHourFormat = DateTimeFormatter.ofPattern("HH:mm");
+        LocalDateTime dateTimeStart = LocalDateTime.of(updateAppointmentStartDate.getValue(), LocalTime.parse(updateAppointmentStartTime.getValue(), minHourFormat));
+        LocalDateTime dateTimeEnd = LocalDateTime.of(updateAppointmentEndDate.getValue(), LocalTime.parse(updateAppointmentEndTime.getValue(), minHourFormat));
+        Appointments form = new Appointments(appointmentToUpdate.getAppointmentID(), updateAppointmentTitle.getText(),
+                updateAppointmentDescription.getText(), updateAppointmentLocation.getText(), updateAppointmentType.getText(),
+                dateTimeStart, dateTimeEnd,
+                Integer.parseInt(updateAppointmentCustomerID.getText()), Integer.parseInt(updateAppointmentUserID.getText()), 0);
+        String contactName = updateAppointmentContact.getValue();
+        updateAppointmentSave.setDisable(true);
+
+        AsyncAccess.load(() -> handleDatabaseOperations(form, contactName), updated -> {
             try {
-                handleDatabaseOperations();
-                General.transitionToScene("../View/MainScreen.fxml");
-            } catch (AppointmentUpdateController.ValidationException e) {
-                showAlertAndReturn(e.getMessage(), Alert.AlertType.ERROR);
+                General.showMainScreen();
+            } catch (IOException e) {
+                e.printStackTrace();
             }
-        } catch (SQLException throwables) {
-            showAlertAndReturn("Database error. Please try again.", Alert.AlertType.ERROR);
-            throwables.printStackTrace();
-        }
+        }, error -> {
+            updateAppointmentSave.setDisable(false);
+            if (error instanceof ValidationException) {
+                showAlertAndReturn(error.getMessage(), Alert.AlertType.ERROR);
+            } else {
+                showAlertAndReturn("Database error. Please try again.", Alert.AlertType.ERROR);
+                error.printStackTrace();
+            }
+        });
     }
 
     /**
      * Handles the operations associated with updating the appointment in the database.
+     * Runs on a background thread, so it only uses the values read from the form.
+     *
+     * @param form        The appointment as entered, without its contact ID.
+     * @param contactName The name of the chosen contact.
+     * @return The appointment as it was saved.
      */
 
-    private void handleDatabaseOperations() throws SQLException, ValidationException {
-        if (!updateAppointmentTitle.getText().isEmpty() && !updateAppointmentDescription.getText().isEmpty() && !updateAppointmentLocation.getText().isEmpty() && !updateAppointmentType.getText().isEmpty() && updateAppointmentStartDate.getValue() != null && updateAppointmentEndDate.getValue() != null && !updateAppointmentStartTime.getValue().isEmpty() && !updateAppointmentEndTime.getValue().isEmpty() && !updateAppointmentCustomerID.getText().isEmpty()) {
-
-            ObservableList<Customers> getAllCustomers = CustomerAccess.getAllCustomers(connection);
-            ObservableList<Integer> storeCustomerIDs = FXCollections.observableArrayList();
-            ObservableList<UserAccess> getAllUsers = UserAccess.getAllUsers();
-            ObservableList<Integer> storeUserIDs = FXCollections.observableArrayList();
-            ObservableList<Appointments> getAllAppointments = AppointmentAccess.getAllAppointments();
-
-            getAllCustomers.stream().map(Customers::getCustomerID).forEach(storeCustomerIDs::add);
-            getAllUsers.stream().map(Users::getUserID).forEach(storeUserIDs::add);
-
-            LocalDate localDateEnd = updateAppointmentEndDate.getValue();
-            LocalDate localDateStart = updateAppointmentStartDate.getValue();
-
-            DateTimeFormatter minHourFormat = DateTimeFormatter.ofPattern("HH:mm");
-            String appointmentStartDate = updateAppointmentStartDate.getValue().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            String appointmentStartTime = updateAppointmentStartTime.getValue();
-
-            String endDate = updateAppointmentEndDate.getValue().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            String endTime = updateAppointmentEndTime.getValue();
+    private Appointments handleDatabaseOperations(Appointments form, String contactName) throws SQLException, ValidationException {
+            LocalDateTime dateTimeStart = form.getStart();
+            LocalDateTime dateTimeEnd = form.getEnd();
 
-            System.out.println("thisDate + thisStart " + appointmentStartDate + " " + appointmentStartTime + ":00");
-            String startUTC = convertTimeDateUTC(appointmentStartDate + " " + appointmentStartTime + ":00");
-            String endUTC = convertTimeDateUTC(endDate + " " + endTime + ":00");
-
-            LocalTime localTimeStart = LocalTime.parse(updateAppointmentStartTime.getValue(), minHourFormat);
-            LocalTime LocalTimeEnd = LocalTime.parse(updateAppointmentEndTime.getValue(), minHourFormat);
-
-            LocalDateTime dateTimeStart = LocalDateTime.of(localDateStart, localTimeStart);
-            LocalDateTime dateTimeEnd = LocalDateTime.of(localDateEnd, LocalTimeEnd);
-
-            ZonedDateTime zoneDtStart = ZonedDateTime.of(dateTimeStart, ZoneId.systemDefault());
-            ZonedDateTime zoneDtEnd = ZonedDateTime.of(dateTimeEnd, ZoneId.systemDefault());
-
-            ZonedDateTime convertStartEST = zoneDtStart.withZoneSameInstant(ZoneId.of("America/New_York"));
-            ZonedDateTime convertEndEST = zoneDtEnd.withZoneSameInstant(ZoneId.of("America/New_York"));
-
-            LocalTime startAppointmentTimeToCheck = convertStartEST.toLocalTime();
-            LocalTime endAppointmentTimeToCheck = convertEndEST.toLocalTime();
-
-            DayOfWeek startAppointmentDayToCheck = convertStartEST.toLocalDate().getDayOfWeek();
-            DayOfWeek endAppointmentDayToCheck = convertEndEST.toLocalDate().getDayOfWeek();
-
-            int startAppointmentDayToCheckInt = startAppointmentDayToCheck.getValue();
-            int endAppointmentDayToCheckInt = endAppointmentDayToCheck.getValue();
-
-            int workWeekStart = DayOfWeek.MONDAY.getValue();
-            int workWeekEnd = DayOfWeek.FRIDAY.getValue();
-
-            LocalTime estBusinessStart = LocalTime.of(8, 0, 0);
-            LocalTime estBusinessEnd = LocalTime.of(22, 0, 0);
-
-
-            if (startAppointmentDayToCheckInt < workWeekStart || startAppointmentDayToCheckInt > workWeekEnd || endAppointmentDayToCheckInt < workWeekStart || endAppointmentDayToCheckInt > workWeekEnd) {
+            BusinessHours businessHours = BusinessHours.standard();
+            if (!businessHours.isBusinessDay(dateTimeStart) || !businessHours.isBusinessDay(dateTimeEnd)) {
                 System.out.println("day is outside of business hours");
                 throw new AppointmentUpdateController.ValidationException("The day is outside of business days: Monday - Friday");
             }
 
-            if (startAppointmentTimeToCheck.isBefore(estBusinessStart) || startAppointmentTimeToCheck.isAfter(estBusinessEnd) || endAppointmentTimeToCheck.isBefore(estBusinessStart) || endAppointmentTimeToCheck.isAfter(estBusinessEnd)) {
+            if (!businessHours.isOpen(dateTimeStart, dateTimeEnd)) {
                 System.out.println("Time is outside of business hours.");
                 throw new AppointmentUpdateController.ValidationException("Time is outside of business hours (8am-10pm EST):");
             }
 
-            int customerID = Integer.parseInt(updateAppointmentCustomerID.getText());
-            int appointmentID = Integer.parseInt(updateAppointmentID.getText());
+            int customerID = form.getCustomerID();
+            int appointmentID = form.getAppointmentID();
 
             if (dateTimeStart.isAfter(dateTimeEnd)) {
                 System.out.println("Appointment's start time is after its end time.");
@@ -281,58 +238,26 @@ public class AppointmentUpdateController {
                 System.out.println("Appointment's start and end time are the same.");
                 throw new AppointmentUpdateController.ValidationException("Appointment's start and end time are the same.");
             }
-            for (Appointments appointment : getAllAppointments) {
-                LocalDateTime checkStart = appointment.getStart();
-                LocalDateTime checkEnd = appointment.getEnd();
-
-
-                if (customerID == appointment.getCustomerID() && appointmentID != appointment.getAppointmentID()) {
-                    if (dateTimeStart.isBefore(checkEnd) && dateTimeEnd.isAfter(checkStart)) {
-                        System.out.println("Appointment's time overlaps with an existing appointment's time.");
-                        throw new ValidationException("Appointment's time overlaps with an existing appointment's time.");
-                    }
-                }
-
-
-                if ((customerID == appointment.getCustomerID()) &&
-                        (dateTimeStart.isBefore(checkStart)) && (dateTimeEnd.isAfter(checkEnd))) {
-                    System.out.println("Appointment's time overlaps with an existing appointment's time.");
-                    throw new AppointmentUpdateController.ValidationException("Appointment's time overlaps with an existing appointment's time.");
-                }
-
-                if ((customerID == appointment.getCustomerID()) &&
-                        (dateTimeStart.isAfter(checkStart)) && (dateTimeStart.isBefore(checkEnd))) {
-                    System.out.println("The start time overlaps with an existing appointment.");
-                    throw new AppointmentUpdateController.ValidationException("The start time overlaps with an existing appointment.");
-                }
-
-                if (customerID == appointment.getCustomerID() &&
-                        (dateTimeEnd.isAfter(checkStart)) && (dateTimeEnd.isBefore(checkEnd))) {
-                    System.out.println("The end time overlaps with an existing appointment.");
-                    throw new AppointmentUpdateController.ValidationException("The end time overlaps with an existing appointment.");
-                }
+            if (!AppointmentIndex.findOverlapping(customerID, dateTimeStart, dateTimeEnd, appointmentID).isEmpty()) {
+                System.out.println("Appointment's time overlaps with an existing appointment's time.");
+                throw new ValidationException("Appointment's time overlaps with an existing appointment's time.");
             }
 
-            String updateStatement = "UPDATE appointments SET Title = ?, Description = ?, Location = ?, Type = ?, Start = ?, End = ?, Last_Update = ?, Last_Updated_By = ?, Customer_ID = ?, User_ID = ?, Contact_ID = ? WHERE Appointment_ID = ?";
-            JDBC.setPreparedStatement(JDBC.getConnection(), updateStatement);
-            PreparedStatement ps = JDBC.getPreparedStatement();
-
-            ps.setString(1, updateAppointmentTitle.getText());
-            ps.setString(2, updateAppointmentDescription.getText());
-            ps.setString(3, updateAppointmentLocation.getText());
-            ps.setString(4, updateAppointmentType.getText());
-            ps.setTimestamp(5, Timestamp.valueOf(startUTC));
-            ps.setTimestamp(6, Timestamp.valueOf(endUTC));
-            ps.setTimestamp(7, Timestamp.valueOf(LocalDateTime.now()));
-            ps.setString(8, "admin");
-            ps.setInt(9, Integer.parseInt(updateAppointmentCustomerID.getText()));
-            ps.setInt(10, Integer.parseInt(updateAppointmentUserID.getText()));
-            ps.setInt(11, Integer.parseInt(ContactAccess.findContactID(updateAppointmentContact.getValue())));
-            ps.setInt(12, appointmentToUpdate.getAppointmentID());
-
-            ps.execute();
-        }
+            int contactID = Integer.parseInt(ContactAccess.findContactID(contactName));
 
+            Appointments updatedAppointment = new Appointments(appointmentID, form.getAppointmentTitle(),
+                    form.getAppointmentDescription(), form.getAppointmentLocation(), form.getAppointmentType(),
+                    dateTimeStart, dateTimeEnd,
+                    customerID, form.getUserID(), contactID);
+            try {
+                AppointmentAccess.updateAppointment(updatedAppointment);
+            } catch (AppointmentAccess.UnknownCustomerException e) {
+                throw new ValidationException("The Customer ID does not exist.");
+            } catch (AppointmentAccess.OverlapException e) {
+                // Booked from another workstation since the index was loaded
+                throw new ValidationException("Appointment's time overlaps with an existing appointment's time.");
+            }
+            return updatedAppointment;
     }
 
     /**
@@ -344,7 +269,7 @@ public class AppointmentUpdateController {
     @FXML
     public void updateAppointmentsCancel(ActionEvent event) throws IOException {
         showAlertAndReturn("Are you sure you want to cancel?", Alert.AlertType.CONFIRMATION);
-        General.transitionToScene("../View/MainScreen.fxml");
+        General.showMainScreen();
     }
 
     /**
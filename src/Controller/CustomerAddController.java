@@ -1,6 +1,7 @@
 package Controller;
 
 import DAO.CountryAccess;
+import DAO.CustomerAccess;
 import DAO.FirstLevelDivisionAccess;
 import Helper.General;
 import Helper.JDBC;
@@ -14,11 +15,7 @@ import javafx.scene.control.*;
 
 import java.io.IOException;
 import java.net.URL;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
@@ -71,9 +68,9 @@ public class CustomerAddController implements Initializable {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "Do you want to cancel without saving?");
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            General.transitionToScene("../View/MainScreen.fxml");
+            General.showMainScreen();
         }
-        General.transitionToScene("../View/MainScreen.fxml");
+        General.showMainScreen();
     }
 
 
@@ -90,11 +87,11 @@ public class CustomerAddController implements Initializable {
 
         if (isValidInput()) {
             try {
-                Connection connection = JDBC.startConnection();
+                JDBC.startConnection();
 
                 if (allRequiredFieldsFilled()) {
                     saveCustomerData();
-                    General.transitionToScene("../View/MainScreen.fxml");
+                    General.showMainScreen();
                     showAlertAndReturn("Successfully saved the customer.", Alert.AlertType.CONFIRMATION);
                 }
             } catch (Exception e) {
@@ -156,7 +153,6 @@ public class CustomerAddController implements Initializable {
      */
     public void addCustomerCountry(ActionEvent event) {
         try {
-            JDBC.startConnection();
             String selectedCountry = addCustomerCountry.getValue();
             if (selectedCountry != null) {
                 updateStatesBasedOnSelectedCountry(selectedCountry);
@@ -208,36 +204,12 @@ public class CustomerAddController implements Initializable {
         int firstLevelDivisionId = getFirstLevelDivisionId();
 
             try {
-                Connection connection = JDBC.startConnection();
-
-
                 if (!addCustomerName.getText().isEmpty() || !addCustomerName.getText().isEmpty() || !addCustomerAddress.getText().isEmpty() || !addCustomerPostalCode.getText().isEmpty() || !addCustomerPhone.getText().isEmpty() || !addCustomerCountry.getValue().isEmpty() || !addCustomerState.getValue().isEmpty()) {
-
-
-
-                    int firstLevelDivisionName = 0;
-                    for (FirstLevelDivisionAccess firstLevelDivision : FirstLevelDivisionAccess.getAllFirstLevelDivisions()) {
-                        if (addCustomerState.getSelectionModel().getSelectedItem().equals(firstLevelDivision.getDivisionName())) {
-                            firstLevelDivisionName = firstLevelDivision.getDivisionID();
-                        }
-                    }
-
-                    String insertStatement = "INSERT INTO customers (Customer_ID, Customer_Name, Address, Postal_Code, Phone, Create_Date, Created_By, Last_Update, Last_Updated_By, Division_ID) VALUES (?,?,?,?,?,?,?,?,?,?)";
-                    JDBC.setPreparedStatement(JDBC.getConnection(), insertStatement);
-                    PreparedStatement ps = JDBC.getPreparedStatement();
-                    int newCustomerID = Integer.parseInt(String.valueOf((int) (Math.random() * 100)));
-                    ps.setInt(1, newCustomerID);
-                    ps.setString(2, addCustomerName.getText());
-                    ps.setString(3, addCustomerAddress.getText());
-                    ps.setString(4, addCustomerPostalCode.getText());
-                    ps.setString(5, addCustomerPhone.getText());
-                    ps.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
-                    ps.setString(7, "admin");
-                    ps.setTimestamp(8, Timestamp.valueOf(LocalDateTime.now()));
-                    ps.setString(9, "admin");
-                    ps.setInt(10, firstLevelDivisionName);
-                    ps.execute();
-
+                    FirstLevelDivisionAccess division = FirstLevelDivisionAccess.getDivisionById(firstLevelDivisionId);
+                    String divisionName = division != null ? division.getDivisionName() : null;
+                    int newCustomerID = CustomerAccess.nextCustomerID();
+                    CustomerAccess.addCustomer(new Customers(newCustomerID, addCustomerName.getText(), addCustomerAddress.getText(),
+                            addCustomerPostalCode.getText(), addCustomerPhone.getText(), firstLevelDivisionId, divisionName));
                 }
             } catch (Exception e) {
                 e.printStackTrace();
@@ -254,11 +226,8 @@ public class CustomerAddController implements Initializable {
      */
 
     private int getFirstLevelDivisionId() throws SQLException {
-        return FirstLevelDivisionAccess.getAllFirstLevelDivisions().stream()
-                .filter(div -> div.getDivisionName().equals(addCustomerState.getSelectionModel().getSelectedItem()))
-                .findFirst()
-                .map(FirstLevelDivisionAccess::getDivisionID)
-                .orElse(0);
+        FirstLevelDivisionAccess division = FirstLevelDivisionAccess.getDivisionByName(addCustomerState.getSelectionModel().getSelectedItem());
+        return division != null ? division.getDivisionID() : 0;
     }
 
 
@@ -270,10 +239,9 @@ public class CustomerAddController implements Initializable {
      */
     private int getCountryIDByName(String countryName) {
         try {
-            for (CountryAccess country : CountryAccess.getCountries()) {
-                if (country.getCountryName().equals(countryName)) {
-                    return country.getCountryID();
-                }
+            CountryAccess country = CountryAccess.getCountryByName(countryName);
+            if (country != null) {
+                return country.getCountryID();
             }
         } catch (SQLException e) {
             e.printStackTrace();
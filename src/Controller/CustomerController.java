@@ -1,9 +1,9 @@
 package Controller;
 
-import DAO.AppointmentAccess;
-import DAO.CountryAccess;
+import DAO.AsyncAccess;
 import DAO.CustomerAccess;
-import DAO.FirstLevelDivisionAccess;
+import DAO.CustomerIndex;
+import Helper.ChangeFeed;
 import Helper.General;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -16,14 +16,11 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import Helper.JDBC;
 import Model.*;
 import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.net.URL;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Optional;
 import java.util.ResourceBundle;
@@ -63,6 +60,15 @@ import static Helper.General.showAlertAndReturn;
     private TableColumn<?, ?> customerRecordsTableState;
     @FXML
     private TableColumn<?, ?> customerRecordsTableCountry;
+    @FXML
+    private TextField customerRecordsSearch;
+
+    private static final int searchLimit = 200;     // Most rows shown for a search
+    private String searchQuery;                     // The search shown in the table; null while every customer is shown
+    private int viewGeneration = 0;                 // Bumped on every reload so stale results are dropped
+
+    // Held in a field because the change feed only keeps a weak reference to its listeners
+    private final ChangeFeed.Listener<Customers> customerChanges = this::applyCustomerChange;
 
 
     /**
@@ -86,14 +92,6 @@ import static Helper.General.showAlertAndReturn;
 
 
         try {
-            Connection connection = JDBC.startConnection();
-
-            ObservableList<CountryAccess> allCountries = CountryAccess.getCountries();
-            ObservableList<String> countryNames = FXCollections.observableArrayList();
-            ObservableList<FirstLevelDivisionAccess> allFirstLevelDivisions = FirstLevelDivisionAccess.getAllFirstLevelDivisions();
-            ObservableList<String> firstLevelDivisionAllNames = FXCollections.observableArrayList();
-            ObservableList<Customers> allCustomersList = CustomerAccess.getAllCustomers(connection);
-
             customerRecordsTableID.setCellValueFactory(new PropertyValueFactory<>("customerID"));
             customerRecordsTableName.setCellValueFactory(new PropertyValueFactory<>("customerName"));
             customerRecordsTableAddress.setCellValueFactory(new PropertyValueFactory<>("customerAddress"));
@@ -101,15 +99,15 @@ import static Helper.General.showAlertAndReturn;
             customerRecordsTablePhone.setCellValueFactory(new PropertyValueFactory<>("customerPhone"));
             customerRecordsTableState.setCellValueFactory(new PropertyValueFactory<>("divisionName"));
 
-            ObservableList<Customers> refreshCustomersList = CustomerAccess.getAllCustomers(connection);
-            customerRecordsTable.setItems(refreshCustomersList);
-
-
-            allCountries.stream().map(Country::getCountryName).forEach(countryNames::add);
-
-            allFirstLevelDivisions.forEach(firstLevelDivision -> firstLevelDivisionAllNames.add(firstLevelDivision.getDivisionName()));
-
-            customerRecordsTable.setItems(allCustomersList);
+            CustomerAccess.getChanges().subscribe(customerChanges);
+            loadCustomers();
+            customerRecordsSearch.textProperty().addListener((observable, oldText, newText) -> {
+                if (!newText.isBlank()) {
+                    searchCustomers(newText);
+                } else if (searchQuery != null) {
+                    loadCustomers();
+                }
+            });
 
             // Disable Update and Delete button by default
             customerRecordsUpdateCustomerButton.setDisable(true);
@@ -183,7 +181,8 @@ import static Helper.General.showAlertAndReturn;
 
     /**
      * Handler for deleting a customer record.
-     * Deletes the selected customer record and updates the table view.
+     * Deletes the selected customer and all of their appointments in one transaction.
+     * The open tables drop the affected rows when the deletion is published.
      *
      * @param event The action event.
      * @throws Exception If any error occurs during processing.
@@ -192,33 +191,76 @@ import static Helper.General.showAlertAndReturn;
     @FXML
     void customerRecordsDeleteCustomer(ActionEvent event) throws Exception {
 
-        Connection connection = JDBC.startConnection();
-        ObservableList<Appointments> getAllAppointmentsList = AppointmentAccess.getAllAppointments();
-
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "Delete the selected customer and all appointments? ");
         Optional<ButtonType> confirmation = alert.showAndWait();
         if (confirmation.isPresent() && confirmation.get() == ButtonType.OK) {
             int deleteCustomerID = customerRecordsTable.getSelectionModel().getSelectedItem().getCustomerID();
-            AppointmentAccess.deleteAppointment(deleteCustomerID, connection);
+            customerRecordsDeleteButton.setDisable(true);
+            AsyncAccess.load(() -> CustomerAccess.deleteCustomer(deleteCustomerID),
+                    deleted -> customerRecordsDeleteButton.setDisable(customerRecordsTable.getSelectionModel().isEmpty()),
+                    error -> {
+                        error.printStackTrace();
+                        customerRecordsDeleteButton.setDisable(customerRecordsTable.getSelectionModel().isEmpty());
+                        General.showAlertAndReturn("Database error. Please try again.", Alert.AlertType.ERROR);
+                    });
+        }
+    }
 
-            String sqlDelete = "DELETE FROM customers WHERE Customer_ID = ?";
-            JDBC.setPreparedStatement(JDBC.getConnection(), sqlDelete);
+    /**
+     * Patches the one row affected by a customer change instead of reloading the table.
+     * While a search is shown, a customer that no longer matches it is dropped.
+     */
+    private void applyCustomerChange(ChangeFeed.Kind kind, int customerID, Customers customer) {
+        ObservableList<Customers> items = customerRecordsTable.getItems();
+        int index = -1;
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getCustomerID() == customerID) {
+                index = i;
+                break;
+            }
+        }
+        if (kind == ChangeFeed.Kind.REMOVED || (searchQuery != null && !CustomerIndex.matches(customer, searchQuery))) {
+            if (index >= 0) {
+                items.remove(index);
+            }
+        } else if (index >= 0) {
+            items.set(index, customer);
+        } else {
+            items.add(customer);
+        }
+    }
 
-            PreparedStatement psDelete = JDBC.getPreparedStatement();
-            int customerFromTable = customerRecordsTable.getSelectionModel().getSelectedItem().getCustomerID();
+    /**
+     * Loads the customer records in the background and shows them in the table.
+     */
+    private void loadCustomers() {
+        int generation = ++viewGeneration;
+        searchQuery = null;
+        customerRecordsTable.setItems(FXCollections.observableArrayList());
+        customerRecordsTable.setPlaceholder(new Label("Loading customers..."));
+        AsyncAccess.load(CustomerAccess::getAllCustomers, customers -> {
+            if (generation == viewGeneration) {
+                customerRecordsTable.setItems(customers);
+                customerRecordsTable.setPlaceholder(new Label("No customers found."));
+            }
+        }, Throwable::printStackTrace);
+    }
 
-            for (Appointments appointment : getAllAppointmentsList) {
-                int customerFromAppointments = appointment.getCustomerID();
-                if (customerFromTable == customerFromAppointments) {
-                    String deleteStatementAppointments = "DELETE FROM appointments WHERE Appointment_ID = ?";
-                    JDBC.setPreparedStatement(JDBC.getConnection(), deleteStatementAppointments);
-                }
+    /**
+     * Shows the customers that match a search, found in the {@link CustomerIndex} off the
+     * JavaFX thread.
+     *
+     * @param query The words typed into the search box.
+     */
+    private void searchCustomers(String query) {
+        int generation = ++viewGeneration;
+        searchQuery = query;
+        AsyncAccess.load(() -> CustomerIndex.search(query, searchLimit), found -> {
+            if (generation == viewGeneration) {
+                customerRecordsTable.setItems(FXCollections.observableArrayList(found));
+                customerRecordsTable.setPlaceholder(new Label("No customers found."));
             }
-            psDelete.setInt(1, customerFromTable);
-            psDelete.execute();
-            ObservableList<Customers> refreshCustomersList = CustomerAccess.getAllCustomers(connection);
-            customerRecordsTable.setItems(refreshCustomersList);
-        }
+        }, Throwable::printStackTrace);
     }
 
 }
@@ -10,15 +10,10 @@ import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import Model.Customers;
 import DAO.CustomerAccess;
-import Helper.JDBC;
 import javafx.scene.control.*;
 
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -111,10 +106,9 @@ public class CustomerUpdateController {
      * @throws SQLException If there's an issue accessing the database.
      */
     private int getCountryIDByName(String countryName) throws SQLException {
-        for (CountryAccess country : CountryAccess.getCountries()) {
-            if (country.getCountryName().equals(countryName)) {
-                return country.getCountryID();
-            }
+        CountryAccess country = CountryAccess.getCountryByName(countryName);
+        if (country != null) {
+            return country.getCountryID();
         }
         return -1;  // default, can be changed to throw an exception if the country ID is not found
     }
@@ -172,11 +166,9 @@ public class CustomerUpdateController {
      * @throws SQLException If there's an issue accessing the database.
      */
     private int getCountryIDByDivision(int divisionID) throws SQLException {
-        // Assuming you have a method in FirstLevelDivisionAccess that retrieves the country ID based on division ID
-        for (FirstLevelDivisionAccess division : FirstLevelDivisionAccess.getAllFirstLevelDivisions()) {
-            if (division.getDivisionID() == divisionID) {
-                return division.getCountry_ID();
-            }
+        FirstLevelDivisionAccess division = FirstLevelDivisionAccess.getDivisionById(divisionID);
+        if (division != null) {
+            return division.getCountry_ID();
         }
         return -1;  // default, can be changed to throw an exception if the country ID is not found
     }
@@ -190,10 +182,9 @@ public class CustomerUpdateController {
      */
 
     private String getCountryNameByID(int countryID) throws SQLException {
-        for (CountryAccess country : CountryAccess.getCountries()) {
-            if (country.getCountryID() == countryID) {
-                return country.getCountryName();
-            }
+        CountryAccess country = CountryAccess.getCountryById(countryID);
+        if (country != null) {
+            return country.getCountryName();
         }
         return null;  // default, can be changed to throw an exception if the country name is not found
     }
@@ -210,9 +201,9 @@ public class CustomerUpdateController {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "Do you want to cancel without saving?");
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            General.transitionToScene("../View/MainScreen.fxml");
+            General.showMainScreen();
         }
-        General.transitionToScene( "../View/MainScreen.fxml");
+        General.showMainScreen();
     }
 
     /**
@@ -254,7 +245,8 @@ public class CustomerUpdateController {
 
     /**
      * Event handler for the update button.
-     * Updates the customer's record in the database and refreshes the table view.
+     * Updates the customer's record in the database; the customer table patches the row
+     * from the change that the update publishes.
      *
      * @param event The associated action event.
      * @throws IOException If there's an issue with transitioning screens.
@@ -268,42 +260,24 @@ public class CustomerUpdateController {
         }
 
         try {
-            Connection connection = JDBC.startConnection();
-
             if (!updateCustomerName.getText().isEmpty() || !updateCustomerAddress.getText().isEmpty() || !updateCustomerAddress.getText().isEmpty() || !updateCustomerPostalCode.getText().isEmpty() || !updateCustomerPhone.getText().isEmpty() || !(updateCustomerCountry.getValue() == null) || !(updateCustomerState.getValue() == null))
             {
                 int firstLevelDivisionName = 0;
-                for (FirstLevelDivisionAccess firstLevelDivision : FirstLevelDivisionAccess.getAllFirstLevelDivisions()) {
-                    if (updateCustomerState.getSelectionModel().getSelectedItem().equals(firstLevelDivision.getDivisionName())) {
-                        firstLevelDivisionName = firstLevelDivision.getDivisionID();
-                    }
+                FirstLevelDivisionAccess firstLevelDivision = FirstLevelDivisionAccess.getDivisionByName(updateCustomerState.getSelectionModel().getSelectedItem());
+                if (firstLevelDivision != null) {
+                    firstLevelDivisionName = firstLevelDivision.getDivisionID();
                 }
 
-                // Use an UPDATE statement
-                String updateStatement = "UPDATE customers SET Customer_Name=?, Address=?, Postal_Code=?, Phone=?, Last_Update=?, Last_Updated_By=?, Division_ID=? WHERE Customer_ID=?";
-                JDBC.setPreparedStatement(JDBC.getConnection(), updateStatement);
-                PreparedStatement ps = JDBC.getPreparedStatement();
-
-                // Set parameters for the UPDATE statement
-                ps.setString(1, updateCustomerName.getText());
-                ps.setString(2, updateCustomerAddress.getText());
-                ps.setString(3, updateCustomerPostalCode.getText());
-                ps.setString(4, updateCustomerPhone.getText());
-                ps.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
-                ps.setString(6, "admin");
-                ps.setInt(7, firstLevelDivisionName);
-                ps.setInt(8, currentCustomer.getCustomerID());  // Use the ID from the currentCustomer
-
-                ps.executeUpdate();
-
-                ObservableList<Customers> refreshCustomersList = CustomerAccess.getAllCustomers(connection);
-                customerRecordsTable.setItems(refreshCustomersList);
+                String divisionName = firstLevelDivision != null ? firstLevelDivision.getDivisionName() : null;
+                CustomerAccess.updateCustomer(new Customers(currentCustomer.getCustomerID(), updateCustomerName.getText(),
+                        updateCustomerAddress.getText(), updateCustomerPostalCode.getText(), updateCustomerPhone.getText(),
+                        firstLevelDivisionName, divisionName));
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
 
-        General.transitionToScene("../View/MainScreen.fxml");
+        General.showMainScreen();
     }
 
 }
@@ -1,10 +1,13 @@
 package Controller;
 
 import DAO.AppointmentAccess;
+import DAO.AsyncAccess;
 import DAO.UserAccess;
+import Helper.AuditLog;
 import Helper.General;
 import Helper.JDBC;
 import Model.Appointments;
+import javafx.application.Platform;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -15,9 +18,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Label;
 import javafx.stage.Stage;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.net.URL;
 import java.sql.SQLException;
 import java.sql.Timestamp;
@@ -55,70 +56,86 @@ public class LoginController implements Initializable {
 
     /**
      * Initializes the login screen elements and sets the appropriate locale.
-     * This method also initiates a connection to the database.
+     * This method also starts the database connection pool, and tells the user if it cannot.
      *
      * @param url  The location used to resolve relative paths for the root object.
      * @param rb   The resources used to localize the root object.
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        // Ensure database connection is initiated at the start
-        JDBC.startConnection();
+        initLocaleAndText();
+
+        // Ensure the connection pool is started before the first login attempt
+        try {
+            JDBC.startConnection();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            Platform.runLater(() -> showAlertAndReturn(this.rb.getString("DatabaseUnavailable"), Alert.AlertType.ERROR));
+        }
 
         // Determine the user's location
         ZoneId zone = ZoneId.systemDefault();
         loginScreenLocationField.setText(String.valueOf(zone));
-
-        initLocaleAndText();
     }
 
     /**
      * Handles the action event when the login button is pressed.
-     * This method attempts to validate the user credentials, logs the attempt,
-     * and either grants access to the main application or displays an error.
+     * This method validates the user credentials in the background, logs the attempt,
+     * and either grants access to the main application or displays an error, including when
+     * the database cannot be reached.
+     * The button stays disabled while the credentials are being checked.
      *
      * @param event The action event associated with pressing the login button.
-     * @throws SQLException if there's a database access error.
-     * @throws IOException if there's an error with file operations.
      */
 
     @FXML
-    private void loginButton(ActionEvent event) throws SQLException, IOException {
-        ObservableList<Appointments> allAppointments = AppointmentAccess.getAllAppointments();
-        LocalDateTime currentTimeMinus15Min = LocalDateTime.now().minusMinutes(15);
-        LocalDateTime currentTimePlus15Min = LocalDateTime.now().plusMinutes(15);
-        boolean appointmentWithin15Min = false;
-
+    private void loginButton(ActionEvent event) {
         String usernameInput = loginScreenUsername.getText();
         String passwordInput = loginScreenPassword.getText();
-        int userId = UserAccess.validateUser(usernameInput, passwordInput);
-
-        if (userId > 0) {
-            logActivity("user: " + usernameInput + " successfully logged in at: " + Timestamp.valueOf(LocalDateTime.now()));
-            General.transitionToScene("../View/MainScreen.fxml");
-
-            for (Appointments appointment : allAppointments) {
-                LocalDateTime startTime = appointment.getStart();
-                if (startTime.isAfter(currentTimeMinus15Min) && startTime.isBefore(currentTimePlus15Min)) {
-                    appointmentWithin15Min = true;
-
-                    String appointmentDetails = String.format("Appointment ID: %d, Date: %s, Time: %s",
-                            appointment.getAppointmentID(),
-                            startTime.toLocalDate(),
-                            startTime.toLocalTime());
-
-                    showAlertAndReturn(rb.getString("AppointmentSoon") + ": " + appointmentDetails, Alert.AlertType.INFORMATION);
-                    break;
+        loginButton.setDisable(true);
+
+        AsyncAccess.load(() -> UserAccess.validateUser(usernameInput, passwordInput), userId -> {
+            if (userId > 0) {
+                logActivity("user: " + usernameInput + " successfully logged in at: " + Timestamp.valueOf(LocalDateTime.now()));
+                try {
+                    General.showMainScreen();
+                } catch (IOException e) {
+                    e.printStackTrace();
                 }
+                LocalDateTime now = LocalDateTime.now();
+                AsyncAccess.load(() -> AppointmentAccess.getUserAppointmentsStartingBetween(userId, now.minusMinutes(15), now.plusMinutes(15)),
+                        this::showUpcomingAppointment, Throwable::printStackTrace);
+            } else {
+                logActivity("user: " + usernameInput + " failed login attempt at: " + Timestamp.valueOf(LocalDateTime.now()));
+                loginButton.setDisable(false);
+                showAlertAndReturn(rb.getString("Incorrect"), Alert.AlertType.ERROR);
             }
+        }, error -> {
+            error.printStackTrace();
+            loginButton.setDisable(false);
+            showAlertAndReturn(rb.getString("DatabaseUnavailable"), Alert.AlertType.ERROR);
+        });
+    }
 
-            if (!appointmentWithin15Min) {
-                showAlertAndReturn(rb.getString("NoUpcomingAppointments"), Alert.AlertType.INFORMATION);
-            }
-        } else {
-            logActivity("user: " + usernameInput + " failed login attempt at: " + Timestamp.valueOf(LocalDateTime.now()));
-            showAlertAndReturn(rb.getString("Incorrect"), Alert.AlertType.ERROR);
+    /**
+     * Tells the user about the first of their appointments that starts within 15 minutes of now.
+     *
+     * @param upcomingAppointments The user's appointments in that window, ordered by start.
+     */
+    private void showUpcomingAppointment(ObservableList<Appointments> upcomingAppointments) {
+        if (upcomingAppointments.isEmpty()) {
+            showAlertAndReturn(rb.getString("NoUpcomingAppointments"), Alert.AlertType.INFORMATION);
+            return;
         }
+
+        Appointments appointment = upcomingAppointments.get(0);
+        LocalDateTime startTime = appointment.getStart();
+        String appointmentDetails = String.format("Appointment ID: %d, Date: %s, Time: %s",
+                appointment.getAppointmentID(),
+                startTime.toLocalDate(),
+                startTime.toLocalTime());
+
+        showAlertAndReturn(rb.getString("AppointmentSoon") + ": " + appointmentDetails, Alert.AlertType.INFORMATION);
     }
 
     /**
@@ -154,14 +171,14 @@ public class LoginController implements Initializable {
 
     /**
      * Logs messages into the "login_activity.txt" file.
-     * This method is used to record login attempts.
+     * This method is used to record login attempts. The line is queued and written
+     * by the audit log's background thread, so the login screen never waits on disk.
      *
      * @param logMessage The message to be logged into the file.
      */
     private void logActivity(String logMessage) {
-        try (FileWriter fileWriter = new FileWriter("login_activity.txt", true);
-             PrintWriter outputFile = new PrintWriter(fileWriter)) {
-            outputFile.println(logMessage);
+        try {
+            AuditLog.getLoginActivity().log(logMessage);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -1,6 +1,7 @@
 package Controller;
 
 import DAO.AppointmentAccess;
+import DAO.AsyncAccess;
 import DAO.ContactAccess;
 import DAO.ReportAccess;
 import Model.*;
@@ -14,12 +15,10 @@ import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.io.IOException;
 import java.sql.SQLException;
-import java.time.Month;
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static Helper.General.transitionToScene;
+import static Helper.General.showMainScreen;
 
 /**
  * The ReportController class manages and controls the report view for the application.
@@ -41,6 +40,7 @@ public class ReportController {
     @FXML private TableColumn<?, ?> appointmentTotalsTypeTotalCol;
     @FXML private TableColumn<?, ?> appointmentType;
     @FXML private ComboBox<String> contactScheduleContactBox;
+    @FXML private Label contactScheduleTotal;
     @FXML private TableColumn<?, ?> tableContactID;
     @FXML private TableView<ReportType> appointmentTotalsAppointmentType;
     @FXML private Tab appointmentTotalsTab;
@@ -54,11 +54,9 @@ public class ReportController {
 
     /**
      * Initializes the controller class. Sets up table columns and the contact combo box.
-     *
-     * @throws SQLException if any SQL related errors occur.
      */
 
-    public void initialize() throws SQLException {
+    public void initialize() {
         setupTableColumns();
         setupContactComboBox();
     }
@@ -71,7 +69,7 @@ public class ReportController {
      */
     @FXML
     public void handleBackButton(ActionEvent event) throws IOException {
-        transitionToScene("../View/MainScreen.fxml");
+        showMainScreen();
     }
     /**
      * Generates the appointment totals report when the corresponding tab is selected.
@@ -119,137 +117,76 @@ public class ReportController {
     }
 
     /**
-     * Sets up the contact combo box with contact names from the database.
-     *
-     * @throws SQLException if there's an error fetching contacts from the database.
+     * Sets up the contact combo box with contact names loaded in the background.
      */
-    private void setupContactComboBox() throws SQLException {
+    private void setupContactComboBox() {
         // Lambda Expression Justification:
         // This stream and lambda combination facilitates the transformation of a list of Contacts into a list of their respective names.
         // It simplifies the code by directly mapping each Contact object to its name, avoiding the need for explicit looping.
-        List<String> allContactNames = ContactAccess.getAllContacts().stream()
-                .map(Contacts::getContactName)
-                .collect(Collectors.toList());
-        contactScheduleContactBox.setItems(FXCollections.observableArrayList(allContactNames));
+        AsyncAccess.load(() -> ContactAccess.getAllContacts().stream()
+                        .map(Contacts::getContactName)
+                        .collect(Collectors.toList()),
+                allContactNames -> contactScheduleContactBox.setItems(FXCollections.observableArrayList(allContactNames)),
+                Throwable::printStackTrace);
     }
 
     /**
-     * Updates the appointment data in the table view based on the selected contact in the combo box.
+     * Updates the appointment data in the table view based on the selected contact in the combo box,
+     * and shows the contact's total from the maintained report totals beside it.
      */
     @FXML
     public void appointmentDataByContact() {
-        try {
-            String selectedContactName = contactScheduleContactBox.getSelectionModel().getSelectedItem();
-            List<Appointments> appointmentsForContact = fetchAppointmentsForContact(selectedContactName);
-            allAppointmentsTable.setItems(FXCollections.observableArrayList(appointmentsForContact));
-        } catch (SQLException exception) {
-            exception.printStackTrace();
+        String selectedContactName = contactScheduleContactBox.getSelectionModel().getSelectedItem();
+        if (selectedContactName == null) {
+            return;
         }
+        allAppointmentsTable.setPlaceholder(new Label("Loading appointments..."));
+        AsyncAccess.load(() -> fetchAppointmentsForContact(selectedContactName),
+                appointmentsForContact -> {
+                    // Ignore the result if another contact was picked while it loaded
+                    if (selectedContactName.equals(contactScheduleContactBox.getSelectionModel().getSelectedItem())) {
+                        allAppointmentsTable.setItems(FXCollections.observableArrayList(appointmentsForContact));
+                        allAppointmentsTable.setPlaceholder(new Label("No appointments found."));
+                    }
+                },
+                Throwable::printStackTrace);
+        AsyncAccess.load(ReportAccess::getAppointmentTotalsByContact,
+                totalsByContact -> {
+                    if (selectedContactName.equals(contactScheduleContactBox.getSelectionModel().getSelectedItem())) {
+                        contactScheduleTotal.setText("Total appointments: " + totalsByContact.getOrDefault(selectedContactName, 0));
+                    }
+                },
+                Throwable::printStackTrace);
     }
 
     /**
-     * Fetches appointments associated with a given contact name.
-     *
-     * // Lambda Expression Justification:
-     *         // The stream and lambda expression here help filter the appointments associated with a specific contactID.
-     *         // This way, the code remains concise and readable without the need for explicit iteration and condition checking.
+     * Fetches the schedule of a contact, selected by the database through the contact's index.
      *
      * @param contactName Name of the contact.
-     * @return A list of appointments associated with the contact.
+     * @return A list of the contact's appointments, ordered by start.
      * @throws SQLException if there's an error fetching appointments from the database.
      */
-
     private List<Appointments> fetchAppointmentsForContact(String contactName) throws SQLException {
-        int contactID = fetchContactIdByName(contactName);
-        // Lambda Expression Justification:
-        // The stream and lambda expression here help filter the appointments associated with a specific contactID.
-        // This way, the code remains concise and readable without the need for explicit iteration and condition checking.
-        return AppointmentAccess.getAllAppointments().stream()
-                .filter(appointment -> appointment.getContactID() == contactID)
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Retrieves the ID of a contact by their name.
-     *
-     * // Lambda Expression Justification:
-     *         // Here, the stream and lambda combination search for the contact with the given name.
-     *         // It makes the code more intuitive as it directly relates the logic of filtering with the condition.
-     *
-     * @param contactName Name of the contact.
-     * @return The ID of the contact.
-     * @throws SQLException if there's an error fetching the contact from the database.
-     */
-    private int fetchContactIdByName(String contactName) throws SQLException {
-        // Lambda Expression Justification:
-        // Here, the stream and lambda combination search for the contact with the given name.
-        // It makes the code more intuitive as it directly relates the logic of filtering with the condition.
-        return ContactAccess.getAllContacts().stream()
-                .filter(contact -> contactName.equals(contact.getContactName()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Contact not found")).getId();
+        Contacts contact = ContactAccess.getContactByName(contactName);
+        if (contact == null) {
+            throw new IllegalArgumentException("Contact not found");
+        }
+        return AppointmentAccess.getContactSchedule(contact.getId(), null, null, false);
     }
 
     /**
      * Generates a report showing appointment totals and updates the table view with the results.
-     *
-     * // Lambda Expression Justification:
-     *             // This lambda stream is utilized to transform a list of Appointments into a list of Months of those appointments.
-     *             // It promotes code simplicity and avoids the requirement for manual iteration.
-     * // Lambda Expression Justification:
-     *             // This lambda stream aids in identifying unique appointment types from a list of Appointments.
-     *             // The distinct() method combined with map helps in fetching a distinct list of types.
-     * // Lambda Expression Justification:
-     *             // This lambda stream constructs a new list of ReportMonth objects by counting occurrences of each month.
-     *             // The combination of distinct() and map methods here efficiently computes the frequency of each month without multiple nested loops.
-     * // Lambda Expression Justification:
-     *             // This lambda stream constructs a new list of ReportType objects by counting the occurrences of each unique appointment type.
-     *             // It keeps the logic concise and avoids the necessity for multiple loops or conditions.
+     * The totals are counted by the database with GROUP BY, so only one row per type and
+     * one row per month is transferred.
      */
     @FXML
     public void generateAppointmentTotalsReport() {
-        try {
-            List<Appointments> allAppointments = AppointmentAccess.getAllAppointments();
-
-
-            // Lambda Expression Justification:
-            // This lambda stream is utilized to transform a list of Appointments into a list of Months of those appointments.
-            // It promotes code simplicity and avoids the requirement for manual iteration.
-            List<Month> appointmentMonths = allAppointments.stream()
-                    .map(appointment -> appointment.getStart().getMonth())
-                    .collect(Collectors.toList());
-
-            // Lambda Expression Justification:
-            // This lambda stream aids in identifying unique appointment types from a list of Appointments.
-            // The distinct() method combined with map helps in fetching a distinct list of types.
-            List<String> uniqueAppointmentTypes = allAppointments.stream()
-                    .map(Appointments::getAppointmentType)
-                    .distinct()
-                    .collect(Collectors.toList());
-
-            // Lambda Expression Justification:
-            // This lambda stream constructs a new list of ReportMonth objects by counting occurrences of each month.
-            // The combination of distinct() and map methods here efficiently computes the frequency of each month without multiple nested loops.
-            List<ReportMonth> reportMonths = appointmentMonths.stream()
-                    .distinct()
-                    .map(month -> new ReportMonth(month.name(), Collections.frequency(appointmentMonths, month)))
-                    .collect(Collectors.toList());
-
-            // Lambda Expression Justification:
-            // This lambda stream constructs a new list of ReportType objects by counting the occurrences of each unique appointment type.
-            // It keeps the logic concise and avoids the necessity for multiple loops or conditions.
-            List<ReportType> reportTypes = uniqueAppointmentTypes.stream()
-                    .map(type -> new ReportType(type, (int) allAppointments.stream().filter(a -> a.getAppointmentType().equals(type)).count()))
-                    .collect(Collectors.toList());
-
-            appointmentTotalsAppointmentType.setItems(FXCollections.observableArrayList(reportTypes));
-            appointmentTotalAppointmentByMonth.setItems(FXCollections.observableArrayList(reportMonths));
-
-
-
-        } catch (SQLException exception) {
-            exception.printStackTrace();
-        }
+        AsyncAccess.load(ReportAccess::getAppointmentTotalsByType,
+                reportTypes -> appointmentTotalsAppointmentType.setItems(reportTypes),
+                Throwable::printStackTrace);
+        AsyncAccess.load(ReportAccess::getAppointmentTotalsByMonth,
+                reportMonths -> appointmentTotalAppointmentByMonth.setItems(reportMonths),
+                Throwable::printStackTrace);
     }
 
     /**
@@ -257,12 +194,9 @@ public class ReportController {
      */
     @FXML
     public void generateCustomerByCountryReport() {
-        try {
-            List<Reports> countriesReport = ReportAccess.getCountries();
-            customerByCountry.setItems(FXCollections.observableArrayList(countriesReport));
-        } catch (Exception exception) {
-            exception.printStackTrace();
-        }
+        AsyncAccess.load(ReportAccess::getCountries,
+                countriesReport -> customerByCountry.setItems(FXCollections.observableArrayList(countriesReport)),
+                Throwable::printStackTrace);
     }
 
 }
\ No newline at end of file
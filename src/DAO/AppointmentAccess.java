@@ -2,19 +2,99 @@ package DAO;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import Helper.ChangeFeed;
+import Helper.DaoMetrics;
+import Helper.IdGenerator;
 import Helper.JDBC;
+import Helper.RowMapper;
+import Helper.TimeUtility;
 import Model.Appointments;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The AppointmentAccess class provides methods to access and manage appointment data in the database.
+ * Start and end are stored in UTC and converted from and to local time here.
  */
 public class AppointmentAccess {
+    private static final String insertAppointmentSql = "INSERT INTO appointments (Appointment_ID, Title, Description, Location, Type, Start, End, Create_Date, Created_By, Last_Update, Last_Updated_By, Customer_ID, User_ID, Contact_ID) VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
+    private static final String customerBetweenSql = "SELECT * FROM appointments WHERE Customer_ID = ? AND Start < ? AND End > ? ORDER BY Start, Appointment_ID";
+    private static final IdGenerator appointmentIDs = new IdGenerator("appointments", "appointments", "Appointment_ID", 20);
+    private static final ChangeFeed<Appointments> changes = new ChangeFeed<>();
+
+    /**
+     * Thrown when an appointment would overlap another appointment of the same customer
+     * in the database. Nothing is written in that case.
+     */
+    public static class OverlapException extends SQLException {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Appointments> conflicts;
+
+        private OverlapException(List<Appointments> conflicts) {
+            super("The appointment overlaps " + conflicts.size() + " existing appointment(s) of the customer.");
+            this.conflicts = conflicts;
+        }
+
+        /**
+         * Returns the appointments in the database that the rejected one overlaps.
+         *
+         * @return The overlapping appointments, ordered by start.
+         */
+        public List<Appointments> getConflicts() {
+            return conflicts;
+        }
+    }
+
+    /**
+     * Thrown when an appointment's customer is not in the database. Nothing is written in that case.
+     */
+    public static class UnknownCustomerException extends SQLException {
+        private static final long serialVersionUID = 1L;
+
+        private UnknownCustomerException(int customerID) {
+            super("There is no customer with ID " + customerID + ".");
+        }
+    }
+
+    /**
+     * Returns the feed of appointments added, updated and deleted through this class.
+     * Imported appointments are published once their chunk commits.
+     *
+     * @return The appointment change feed.
+     */
+    public static ChangeFeed<Appointments> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Reserves an ID for a new appointment. The ID is never handed out again, even if the
+     * appointment is not saved.
+     *
+     * @return A new appointment ID.
+     * @throws SQLException If a new block of IDs cannot be reserved.
+     */
+    public static int nextAppointmentID() throws SQLException {
+        return appointmentIDs.next();
+    }
+
+    /**
+     * Reserves a contiguous range of IDs for appointments inserted in bulk.
+     *
+     * @param count How many IDs to reserve.
+     * @return The first ID of the range.
+     * @throws SQLException If the range cannot be reserved.
+     */
+    public static int nextAppointmentIDs(int count) throws SQLException {
+        return appointmentIDs.nextRange(count);
+    }
 
     /**
      * Retrieves a list of all appointments stored in the database.
@@ -23,34 +103,313 @@ public class AppointmentAccess {
      * @throws SQLException If there's an error accessing the database.
      */
     public static ObservableList<Appointments> getAllAppointments() throws SQLException {
-        ObservableList<Appointments> appointmentsObservableList = FXCollections.observableArrayList();
-        String sql = "SELECT * FROM appointments";
-        PreparedStatement ps = JDBC.startConnection().prepareStatement(sql);
-        ResultSet rs = ps.executeQuery();
-
-        while (rs.next()) {
-            int appointmentID = rs.getInt("Appointment_ID");
-            String appointmentTitle = rs.getString("Title");
-            String appointmentDescription = rs.getString("Description");
-            String appointmentLocation = rs.getString("Location");
-            String appointmentType = rs.getString("Type");
-            LocalDateTime start = rs.getTimestamp("Start").toLocalDateTime();
-            LocalDateTime end = rs.getTimestamp("End").toLocalDateTime();
-            int customerID = rs.getInt("Customer_ID");
-            int userID = rs.getInt("User_ID");
-            int contactID = rs.getInt("Contact_ID");
-
-            Appointments appointment = new Appointments(appointmentID, appointmentTitle, appointmentDescription,
-                    appointmentLocation, appointmentType, start, end, customerID, userID, contactID);
-
-            appointmentsObservableList.add(appointment);
+        return queryAppointments("getAllAppointments", "SELECT * FROM appointments");
+    }
+
+    /**
+     * Retrieves the appointments that overlap the half-open window {@code [from, to)},
+     * ordered by start. The filter runs in SQL, so only rows inside the window are read.
+     *
+     * @param from The start of the window.
+     * @param to   The end of the window.
+     * @return An ObservableList containing the appointments in the window.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static ObservableList<Appointments> getAppointmentsBetween(LocalDateTime from, LocalDateTime to) throws SQLException {
+        return queryAppointments("getAppointmentsBetween", "SELECT * FROM appointments WHERE Start < ? AND End > ? ORDER BY Start, Appointment_ID",
+                utc(to), utc(from));
+    }
+
+    /**
+     * Retrieves a contact's appointments that overlap the half-open window {@code [from, to)}, ordered by start.
+     *
+     * @param contactID The ID of the contact.
+     * @param from      The start of the window.
+     * @param to        The end of the window.
+     * @return An ObservableList containing the contact's appointments in the window.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static ObservableList<Appointments> getContactAppointmentsBetween(int contactID, LocalDateTime from, LocalDateTime to) throws SQLException {
+        return queryAppointments("getContactAppointmentsBetween", "SELECT * FROM appointments WHERE Contact_ID = ? AND Start < ? AND End > ? ORDER BY Start, Appointment_ID",
+                contactID, utc(to), utc(from));
+    }
+
+    /**
+     * Retrieves a contact's schedule: their appointments that start in an optional window,
+     * ordered by start. Served by the (Contact_ID, Start) index, so the cost depends on the
+     * contact's appointments rather than on the size of the table.
+     *
+     * @param contactID   The ID of the contact.
+     * @param from        The earliest start, inclusive, or null for no lower bound.
+     * @param to          The latest start, exclusive, or null for no upper bound.
+     * @param latestFirst true to order by start descending instead of ascending.
+     * @return An ObservableList containing the contact's appointments.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static ObservableList<Appointments> getContactSchedule(int contactID, LocalDateTime from, LocalDateTime to,
+                                                                  boolean latestFirst) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT * FROM appointments WHERE Contact_ID = ?");
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(contactID);
+        if (from != null) {
+            sql.append(" AND Start >= ?");
+            parameters.add(utc(from));
         }
+        if (to != null) {
+            sql.append(" AND Start < ?");
+            parameters.add(utc(to));
+        }
+        sql.append(latestFirst ? " ORDER BY Start DESC, Appointment_ID DESC" : " ORDER BY Start, Appointment_ID");
+        return queryAppointments("getContactSchedule", sql.toString(), parameters.toArray());
+    }
 
-        return appointmentsObservableList;
+    /**
+     * Retrieves a customer's appointments that overlap the half-open window {@code [from, to)}, ordered by start.
+     *
+     * @param customerID The ID of the customer.
+     * @param from       The start of the window.
+     * @param to         The end of the window.
+     * @return An ObservableList containing the customer's appointments in the window.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static ObservableList<Appointments> getCustomerAppointmentsBetween(int customerID, LocalDateTime from, LocalDateTime to) throws SQLException {
+        return queryAppointments("getCustomerAppointmentsBetween", customerBetweenSql, customerID, utc(to), utc(from));
+    }
+
+    /**
+     * Retrieves a customer's appointments that overlap the half-open window {@code [from, to)}
+     * on the caller's connection, so the check sees, and is part of, the caller's transaction.
+     *
+     * @param customerID The ID of the customer.
+     * @param from       The start of the window.
+     * @param to         The end of the window.
+     * @param connection The connection to read on.
+     * @return An ObservableList containing the customer's appointments in the window.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static ObservableList<Appointments> getCustomerAppointmentsBetween(int customerID, LocalDateTime from, LocalDateTime to,
+                                                                              Connection connection) throws SQLException {
+        return DaoMetrics.time("AppointmentAccess.getCustomerAppointmentsBetween",
+                () -> select(connection, customerBetweenSql, customerID, utc(to), utc(from)));
     }
 
     /**
-     * Deletes an appointment from the database based on the provided appointment ID.
+     * Checks an appointment against its customer's appointments in the database, inside the
+     * caller's transaction. The customer's row is locked first, so two workstations saving for
+     * the same customer check one after the other, and a customer that does not exist is
+     * rejected by the same lookup. Overlaps found here that the {@link AppointmentIndex} did
+     * not know about are added to it.
+     *
+     * @param appointment The appointment about to be written.
+     * @param connection  The connection of the transaction that writes it.
+     * @throws UnknownCustomerException If the appointment's customer does not exist.
+     * @throws OverlapException         If the appointment overlaps another one of the customer.
+     * @throws SQLException             If there's an error accessing the database.
+     */
+    static void checkNoOverlap(Appointments appointment, Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT Customer_ID FROM customers WHERE Customer_ID = ? FOR UPDATE")) {
+            ps.setInt(1, appointment.getCustomerID());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new UnknownCustomerException(appointment.getCustomerID());
+                }
+            }
+        }
+        List<Appointments> conflicts = new ArrayList<>();
+        for (Appointments existing : getCustomerAppointmentsBetween(appointment.getCustomerID(), appointment.getStart(), appointment.getEnd(), connection)) {
+            if (existing.getAppointmentID() != appointment.getAppointmentID()) {
+                conflicts.add(existing);
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            conflicts.forEach(AppointmentIndex::put);
+            throw new OverlapException(conflicts);
+        }
+    }
+
+    /**
+     * Retrieves a user's appointments that start strictly between two times, ordered by start.
+     * Served by the (User_ID, Start) index, so the cost does not grow with the table.
+     *
+     * @param userID The ID of the user.
+     * @param after  The exclusive lower bound on the start.
+     * @param before The exclusive upper bound on the start.
+     * @return An ObservableList containing the user's appointments that start in the window.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static ObservableList<Appointments> getUserAppointmentsStartingBetween(int userID, LocalDateTime after, LocalDateTime before) throws SQLException {
+        return queryAppointments("getUserAppointmentsStartingBetween", "SELECT * FROM appointments WHERE User_ID = ? AND Start > ? AND Start < ? ORDER BY Start, Appointment_ID",
+                userID, utc(after), utc(before));
+    }
+
+    /**
+     * Retrieves one page of appointments ordered by start and then ID, using keyset pagination:
+     * the page begins right after the given key instead of skipping rows with an offset, so
+     * every page costs the same no matter how deep into the history it is. The leading
+     * {@code Start >= ?} bound lets MySQL seek the (Start, Appointment_ID) index to the key
+     * instead of scanning it, which it cannot do for a plain {@code OR} of the two cases.
+     *
+     * @param afterStart         The start of the last appointment on the previous page, or null for the first page.
+     * @param afterAppointmentID The ID of the last appointment on the previous page; ignored for the first page.
+     * @param pageSize           The maximum number of appointments to return.
+     * @return An ObservableList containing up to {@code pageSize} appointments.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static ObservableList<Appointments> getAppointmentsPage(LocalDateTime afterStart, int afterAppointmentID, int pageSize) throws SQLException {
+        if (afterStart == null) {
+            return queryAppointments("getAppointmentsPage", "SELECT * FROM appointments ORDER BY Start, Appointment_ID LIMIT ?", pageSize);
+        }
+        LocalDateTime after = utc(afterStart);
+        return queryAppointments("getAppointmentsPage", "SELECT * FROM appointments WHERE Start >= ? AND (Start > ? OR Appointment_ID > ?) ORDER BY Start, Appointment_ID LIMIT ?",
+                after, after, afterAppointmentID, pageSize);
+    }
+
+    /**
+     * Inserts a new appointment and counts it in the {@link ReportSummaries report totals},
+     * adds it to the {@link AppointmentIndex} and publishes it to the {@link #getChanges() change feed}.
+     * The customer's appointments are checked for overlaps in the same transaction.
+     *
+     * @param appointment The appointment to insert, including its new ID.
+     * @return The inserted appointment, or null if no row was inserted.
+     * @throws UnknownCustomerException If the appointment's customer does not exist.
+     * @throws OverlapException         If the appointment overlaps another one of the customer.
+     * @throws SQLException             If there's an error accessing the database.
+     */
+    public static Appointments addAppointment(Appointments appointment) throws SQLException {
+        ReportSummaries.ensureBuilt();
+        int result = DaoMetrics.time("AppointmentAccess.addAppointment", () -> {
+            try (Connection connection = JDBC.getConnection()) {
+                return JDBC.inTransaction(connection, c -> {
+                    checkNoOverlap(appointment, c);
+                    int inserted;
+                    try (PreparedStatement ps = c.prepareStatement(insertAppointmentSql)) {
+                        bindInsert(ps, appointment, Timestamp.valueOf(LocalDateTime.now()));
+                        inserted = ps.executeUpdate();
+                    }
+                    ReportSummaries.Changes totals = new ReportSummaries.Changes();
+                    if (inserted > 0) {
+                        totals.addAppointment(appointment, 1);
+                    }
+                    totals.apply(c);
+                    return inserted;
+                });
+            }
+        }, Integer::intValue);
+        if (result == 0) {
+            return null;
+        }
+        AppointmentIndex.put(appointment);
+        changes.publish(ChangeFeed.Kind.ADDED, appointment.getAppointmentID(), appointment);
+        return appointment;
+    }
+
+    /**
+     * Inserts several appointments with one JDBC batch on the caller's connection, and counts
+     * them in the {@link ReportSummaries report totals}. The caller owns the transaction and
+     * must add the appointments to the {@link AppointmentIndex} once it commits.
+     *
+     * @param appointments The appointments to insert, with their IDs already assigned.
+     * @param connection   The connection to insert on.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static void addAppointments(List<Appointments> appointments, Connection connection) throws SQLException {
+        ReportSummaries.ensureBuilt();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        DaoMetrics.time("AppointmentAccess.addAppointments", () -> {
+            ReportSummaries.Changes totals = new ReportSummaries.Changes();
+            int[] batch;
+            try (PreparedStatement ps = connection.prepareStatement(insertAppointmentSql)) {
+                for (Appointments appointment : appointments) {
+                    bindInsert(ps, appointment, now);
+                    ps.addBatch();
+                    totals.addAppointment(appointment, 1);
+                }
+                batch = ps.executeBatch();
+            }
+            totals.apply(connection);
+            return batch;
+        }, batch -> appointments.size());
+    }
+
+    /**
+     * Sets the parameters of {@link #insertAppointmentSql} for one appointment.
+     */
+    private static void bindInsert(PreparedStatement ps, Appointments appointment, Timestamp now) throws SQLException {
+        ps.setInt(1, appointment.getAppointmentID());
+        ps.setString(2, appointment.getAppointmentTitle());
+        ps.setString(3, appointment.getAppointmentDescription());
+        ps.setString(4, appointment.getAppointmentLocation());
+        ps.setString(5, appointment.getAppointmentType());
+        ps.setObject(6, utc(appointment.getStart()));
+        ps.setObject(7, utc(appointment.getEnd()));
+        ps.setTimestamp(8, now);
+        ps.setString(9, "admin");
+        ps.setTimestamp(10, now);
+        ps.setInt(11, 1);
+        ps.setInt(12, appointment.getCustomerID());
+        ps.setInt(13, appointment.getUserID());
+        ps.setInt(14, appointment.getContactID());
+    }
+
+    /**
+     * Updates an existing appointment, matched by its ID, moves it between the
+     * {@link ReportSummaries report totals} it counts in, refreshes it in the {@link AppointmentIndex}
+     * and publishes it to the {@link #getChanges() change feed}. The customer's other
+     * appointments are checked for overlaps in the same transaction.
+     *
+     * @param appointment The appointment with its updated details.
+     * @return The updated appointment, or null if there was no appointment with its ID.
+     * @throws UnknownCustomerException If the appointment's customer does not exist.
+     * @throws OverlapException         If the appointment overlaps another one of the customer.
+     * @throws SQLException             If there's an error accessing the database.
+     */
+    public static Appointments updateAppointment(Appointments appointment) throws SQLException {
+        String updateStatement = "UPDATE appointments SET Title = ?, Description = ?, Location = ?, Type = ?, Start = ?, End = ?, Last_Update = ?, Last_Updated_By = ?, Customer_ID = ?, User_ID = ?, Contact_ID = ? WHERE Appointment_ID = ?";
+        ReportSummaries.ensureBuilt();
+        int result = DaoMetrics.time("AppointmentAccess.updateAppointment", () -> {
+            try (Connection connection = JDBC.getConnection()) {
+                return JDBC.inTransaction(connection, c -> {
+                    checkNoOverlap(appointment, c);
+                    ReportSummaries.Changes totals = new ReportSummaries.Changes();
+                    totals.addAppointmentRows(c, "Appointment_ID = ?", -1, appointment.getAppointmentID());
+                    int updated;
+                    try (PreparedStatement ps = c.prepareStatement(updateStatement)) {
+                        ps.setString(1, appointment.getAppointmentTitle());
+                        ps.setString(2, appointment.getAppointmentDescription());
+                        ps.setString(3, appointment.getAppointmentLocation());
+                        ps.setString(4, appointment.getAppointmentType());
+                        ps.setObject(5, utc(appointment.getStart()));
+                        ps.setObject(6, utc(appointment.getEnd()));
+                        ps.setTimestamp(7, Timestamp.valueOf(LocalDateTime.now()));
+                        ps.setString(8, "admin");
+                        ps.setInt(9, appointment.getCustomerID());
+                        ps.setInt(10, appointment.getUserID());
+                        ps.setInt(11, appointment.getContactID());
+                        ps.setInt(12, appointment.getAppointmentID());
+                        updated = ps.executeUpdate();
+                    }
+                    if (updated > 0) {
+                        totals.addAppointment(appointment, 1);
+                    }
+                    totals.apply(c);
+                    return updated;
+                });
+            }
+        }, Integer::intValue);
+        if (result == 0) {
+            return null;
+        }
+        AppointmentIndex.put(appointment);
+        changes.publish(ChangeFeed.Kind.UPDATED, appointment.getAppointmentID(), appointment);
+        return appointment;
+    }
+
+    /**
+     * Deletes an appointment from the database based on the provided appointment ID, together
+     * with its count in the {@link ReportSummaries report totals}. If the connection is not
+     * inside a transaction, the deletion is committed, removed from the {@link AppointmentIndex}
+     * and published to the {@link #getChanges() change feed}. Otherwise it joins the caller's
+     * transaction, and the caller must update the index and publish once it commits.
      *
      * @param appointmentID The ID of the appointment to be deleted.
      * @param connection    The database connection to use.
@@ -59,10 +418,65 @@ public class AppointmentAccess {
      */
     public static int deleteAppointment(int appointmentID, Connection connection) throws SQLException {
         String query = "DELETE FROM appointments WHERE Appointment_ID=?";
-        PreparedStatement ps = connection.prepareStatement(query);
-        ps.setInt(1, appointmentID);
-        int result = ps.executeUpdate();
-        ps.close();
+        ReportSummaries.ensureBuilt();
+        boolean commits = connection.getAutoCommit();     // Otherwise inTransaction joins the caller's transaction
+        int result = DaoMetrics.time("AppointmentAccess.deleteAppointment", () -> JDBC.inTransaction(connection, c -> {
+            ReportSummaries.Changes totals = new ReportSummaries.Changes();
+            totals.addAppointmentRows(c, "Appointment_ID = ?", -1, appointmentID);
+            int deleted;
+            try (PreparedStatement ps = c.prepareStatement(query)) {
+                ps.setInt(1, appointmentID);
+                deleted = ps.executeUpdate();
+            }
+            totals.apply(c);
+            return deleted;
+        }), Integer::intValue);
+        if (commits && result > 0) {
+            AppointmentIndex.remove(appointmentID);
+            changes.publish(ChangeFeed.Kind.REMOVED, appointmentID, null);
+        }
         return result;
     }
+
+    /**
+     * Converts a local date and time to the UTC value stored in the database. It is bound as a
+     * {@code LocalDateTime}, which the driver sends as it is; a {@code Timestamp} would be
+     * shifted again between the JVM's zone and the session's.
+     */
+    private static LocalDateTime utc(LocalDateTime localDateTime) {
+        return TimeUtility.toUtc(localDateTime);
+    }
+
+    /**
+     * Runs an appointments query with the given parameters and maps every row to an Appointments object.
+     *
+     * @param method     The name of the calling method, for {@link DaoMetrics}.
+     * @param sql        The SELECT statement to run.
+     * @param parameters Values bound to the statement's placeholders, in order.
+     * @return An ObservableList containing the selected appointments.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    private static ObservableList<Appointments> queryAppointments(String method, String sql, Object... parameters) throws SQLException {
+        return DaoMetrics.time("AppointmentAccess." + method, () -> {
+            try (Connection connection = JDBC.getConnection()) {
+                return select(connection, sql, parameters);
+            }
+        });
+    }
+
+    /**
+     * Runs an appointments query on a connection and maps every row to an Appointments object.
+     */
+    private static ObservableList<Appointments> select(Connection connection, String sql, Object... parameters) throws SQLException {
+        ObservableList<Appointments> appointmentsObservableList = FXCollections.observableArrayList();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                ps.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper.mapAll(rs, RowMappers.appointments, appointmentsObservableList);
+            }
+        }
+        return appointmentsObservableList;
+    }
 }
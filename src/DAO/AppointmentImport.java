@@ -0,0 +1,342 @@
+package DAO;
+
+import Helper.BusinessHours;
+import Helper.ChangeFeed;
+import Helper.IntervalTree;
+import Helper.JDBC;
+import Model.Appointments;
+import Model.Customers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The AppointmentImport class loads appointments in bulk from a CSV file.
+ * <p>
+ * The file is read one line at a time, so its size is not limited by memory. Each row is
+ * checked against the known customers, users and contacts, the column lengths, the business
+ * hours, the {@link AppointmentIndex}, and the rows accepted earlier in the same file. Accepted
+ * rows are inserted with JDBC batches, one transaction per chunk, so a failure only rolls back
+ * the chunk in progress. Within that transaction each row is checked again against the
+ * customer's appointments in the database, which may have changed since the index was loaded.
+ * A chunk's rows are added to the index and published to the
+ * {@link AppointmentAccess#getChanges() change feed} only once it commits.
+ * </p>
+ * <p>
+ * The first line must be a header naming the columns {@code Title, Description, Location,
+ * Type, Start, End, Customer_ID, User_ID, Contact_ID} in any order. Start and End are local
+ * times formatted as {@code yyyy-MM-dd HH:mm}, optionally with seconds.
+ * </p>
+ */
+public class AppointmentImport {
+    private static final int chunkSize = 1000;              // Rows per batch and per transaction
+    private static final int maxReportedRejections = 100;   // Rejected rows listed individually in the result
+    private static final int maxTextLength = 50;            // Title, Description, Location and Type are VARCHAR(50)
+
+    private static final String[] requiredColumns = {"Title", "Description", "Location", "Type", "Start", "End", "Customer_ID", "User_ID", "Contact_ID"};
+    private static final DateTimeFormatter dateTimeFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]");
+
+    /**
+     * The outcome of an import.
+     */
+    public static class Result {
+        private int imported;
+        private int rejected;
+        private final List<String> rejections = new ArrayList<>();
+
+        /**
+         * Returns the number of appointments that were inserted.
+         *
+         * @return The imported count.
+         */
+        public int getImported() {
+            return imported;
+        }
+
+        /**
+         * Returns the number of rows that failed validation.
+         *
+         * @return The rejected count.
+         */
+        public int getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Returns the reasons for the first rejected rows, each prefixed with its line number.
+         *
+         * @return Up to 100 rejection messages.
+         */
+        public List<String> getRejections() {
+            return rejections;
+        }
+
+        private void reject(int lineNumber, String reason) {
+            rejected++;
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add("Line " + lineNumber + ": " + reason);
+            }
+        }
+    }
+
+    /**
+     * Imports every valid row of a CSV file.
+     *
+     * @param file The CSV file to read.
+     * @return How many rows were imported and why the others were rejected.
+     * @throws IOException  If the file cannot be read or has no valid header.
+     * @throws SQLException If a chunk cannot be written; the chunks before it stay imported.
+     */
+    public static Result importCsv(Path file) throws IOException, SQLException {
+        Result result = new Result();
+        Set<Integer> customerIDs = new HashSet<>();
+        for (Customers customer : CustomerAccess.getAllCustomers()) {
+            customerIDs.add(customer.getCustomerID());
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             Connection connection = JDBC.getConnection()) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IOException("The file is empty.");
+            }
+            int[] columns = mapColumns(parseLine(header.replace("\uFEFF", "")));
+
+            connection.setAutoCommit(false);
+            Map<Integer, IntervalTree<Integer>> accepted = new HashMap<>();   // Rows accepted from this file, by customer
+            List<Appointments> chunk = new ArrayList<>(chunkSize);
+            List<Integer> chunkLines = new ArrayList<>(chunkSize);     // The line number of each row of the chunk
+            int nextID = 0;
+            int lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Appointments row;
+                try {
+                    row = parseRow(parseLine(line), columns);
+                } catch (IllegalArgumentException e) {
+                    result.reject(lineNumber, e.getMessage());
+                    continue;
+                }
+                String reason = validate(row, customerIDs, accepted);
+                if (reason != null) {
+                    result.reject(lineNumber, reason);
+                    continue;
+                }
+                if (chunk.isEmpty()) {
+                    nextID = AppointmentAccess.nextAppointmentIDs(chunkSize);
+                }
+                Appointments appointment = new Appointments(nextID++, row.getAppointmentTitle(), row.getAppointmentDescription(),
+                        row.getAppointmentLocation(), row.getAppointmentType(), row.getStart(), row.getEnd(),
+                        row.getCustomerID(), row.getUserID(), row.getContactID());
+                accepted.computeIfAbsent(appointment.getCustomerID(), id -> new IntervalTree<>())
+                        .insert(AppointmentStore.toMinute(appointment.getStart()), AppointmentStore.toMinute(appointment.getEnd()),
+                                appointment.getAppointmentID(), appointment.getAppointmentID());
+                chunk.add(appointment);
+                chunkLines.add(lineNumber);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, chunkLines, accepted, connection, result);
+                }
+            }
+            writeChunk(chunk, chunkLines, accepted, connection, result);
+        }
+        return result;
+    }
+
+    /**
+     * Checks one chunk against the database, then inserts and commits the rows that pass. Rows
+     * that overlap an appointment in the database are rejected and dropped from the rows
+     * accepted from the file. Once the chunk commits, its rows are added to the
+     * {@link AppointmentIndex} and published; if it fails, it is rolled back.
+     */
+    private static void writeChunk(List<Appointments> chunk, List<Integer> chunkLines, Map<Integer, IntervalTree<Integer>> fromFile,
+                                   Connection connection, Result result) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        int lineNumber = chunkLines.get(chunkLines.size() - 1);
+        List<Appointments> accepted = new ArrayList<>(chunk.size());
+        try {
+            // In customer order, so the row locks are always taken in the same order
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                order.add(i);
+            }
+            order.sort(Comparator.comparingInt(i -> chunk.get(i).getCustomerID()));
+            boolean[] overlaps = new boolean[chunk.size()];
+            for (int i : order) {
+                try {
+                    AppointmentAccess.checkNoOverlap(chunk.get(i), connection);
+                } catch (AppointmentAccess.OverlapException e) {
+                    overlaps[i] = true;
+                }
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                if (overlaps[i]) {
+                    result.reject(chunkLines.get(i), "Appointment's time overlaps with an existing appointment's time.");
+                    Appointments rejected = chunk.get(i);
+                    fromFile.get(rejected.getCustomerID()).remove(AppointmentStore.toMinute(rejected.getStart()), rejected.getAppointmentID());
+                } else {
+                    accepted.add(chunk.get(i));
+                }
+            }
+            AppointmentAccess.addAppointments(accepted, connection);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Import stopped near line " + lineNumber + " after " + result.imported
+                    + " appointments were imported.", e);
+        }
+        result.imported += accepted.size();
+        for (Appointments appointment : accepted) {
+            AppointmentIndex.put(appointment);
+            AppointmentAccess.getChanges().publish(ChangeFeed.Kind.ADDED, appointment.getAppointmentID(), appointment);
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    /**
+     * Checks a row against the reference data, the column lengths, the business hours, existing
+     * appointments and the rows accepted earlier from the same file.
+     *
+     * @return The reason the row is rejected, or null if it is valid.
+     */
+    private static String validate(Appointments row, Set<Integer> customerIDs, Map<Integer, IntervalTree<Integer>> fromFile) throws SQLException {
+        if (!customerIDs.contains(row.getCustomerID())) {
+            return "The Customer ID does not exist.";
+        }
+        if (UserAccess.getUserById(row.getUserID()) == null) {
+            return "The User ID does not exist.";
+        }
+        if (ContactAccess.getContactById(row.getContactID()) == null) {
+            return "The Contact ID does not exist.";
+        }
+        String[] texts = {row.getAppointmentTitle(), row.getAppointmentDescription(), row.getAppointmentLocation(), row.getAppointmentType()};
+        for (int i = 0; i < texts.length; i++) {
+            if (texts[i].length() > maxTextLength) {
+                return requiredColumns[i] + " is longer than " + maxTextLength + " characters.";
+            }
+        }
+        if (!row.getStart().isBefore(row.getEnd())) {
+            return "Appointment's start time must be before its end time.";
+        }
+        if (!BusinessHours.standard().isOpen(row.getStart(), row.getEnd())) {
+            return "Time is out of business hours: 8am - 10pm, Monday - Friday.";
+        }
+        if (!AppointmentIndex.findOverlapping(row.getCustomerID(), row.getStart(), row.getEnd(), -1).isEmpty()) {
+            return "Appointment's time overlaps with an existing appointment's time.";
+        }
+        IntervalTree<Integer> earlier = fromFile.get(row.getCustomerID());
+        if (earlier != null && !earlier.findOverlapping(AppointmentStore.toMinute(row.getStart()), AppointmentStore.toMinute(row.getEnd())).isEmpty()) {
+            return "Appointment's time overlaps with an earlier row of the file.";
+        }
+        return null;
+    }
+
+    /**
+     * Builds an appointment, without an ID yet, from the fields of one row.
+     *
+     * @throws IllegalArgumentException If a field is missing or cannot be parsed.
+     */
+    private static Appointments parseRow(List<String> fields, int[] columns) {
+        for (int column : columns) {
+            if (column >= fields.size()) {
+                throw new IllegalArgumentException("The row has only " + fields.size() + " fields.");
+            }
+        }
+        return new Appointments(0, fields.get(columns[0]), fields.get(columns[1]), fields.get(columns[2]),
+                fields.get(columns[3]), parseDateTime(fields.get(columns[4]), "Start"), parseDateTime(fields.get(columns[5]), "End"),
+                parseID(fields.get(columns[6]), "Customer_ID"), parseID(fields.get(columns[7]), "User_ID"),
+                parseID(fields.get(columns[8]), "Contact_ID"));
+    }
+
+    private static LocalDateTime parseDateTime(String value, String column) {
+        try {
+            return LocalDateTime.parse(value.trim(), dateTimeFormat);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(column + " is not a date and time: " + value);
+        }
+    }
+
+    private static int parseID(String value, String column) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+    /**
+     * Finds the position of every required column in the header.
+     *
+     * @return The field index of each entry of {@link #requiredColumns}.
+     * @throws IOException If a required column is missing.
+     */
+    private static int[] mapColumns(List<String> header) throws IOException {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            positions.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] columns = new int[requiredColumns.length];
+        for (int i = 0; i < requiredColumns.length; i++) {
+            Integer position = positions.get(requiredColumns[i].toLowerCase(Locale.ROOT));
+            if (position == null) {
+                throw new IOException("The header has no " + requiredColumns[i] + " column.");
+            }
+            columns[i] = position;
+        }
+        return columns;
+    }
+
+    /**
+     * Splits one CSV line into fields. Fields may be quoted, with {@code ""} standing for a
+     * quote inside a quoted field.
+     */
+    private static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,190 @@
+package DAO;
+
+import Helper.IntervalTree;
+import Helper.TextIndex;
+import Model.Appointments;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The AppointmentIndex class keeps an in-memory interval tree of appointments per customer,
+ * so overlap checks do not have to scan the appointments table. A {@link TextIndex} of their
+ * title, description, location and type, by appointment ID, serves the search box.
+ * <p>
+ * The appointments themselves are held in a columnar {@link AppointmentStore}; the trees only
+ * hold their IDs and times, to the minute. The index is loaded from the database on first use
+ * and is then kept in sync by the {@link AppointmentAccess} write methods. Changes made by
+ * other workstations are only picked up after {@link #invalidate()}.
+ * </p>
+ */
+public class AppointmentIndex {
+    private static Map<Integer, IntervalTree<Integer>> treesByCustomer;     // Customer ID to the IDs of that customer's appointments
+    private static AppointmentStore appointments;                           // Every indexed appointment
+    private static TextIndex words;                                         // Appointment IDs by the words of their text
+
+    /**
+     * Finds the appointments of a customer that overlap the half-open range {@code [start, end)}.
+     *
+     * @param customerID           The customer whose appointments are checked.
+     * @param start                The start of the range.
+     * @param end                  The end of the range.
+     * @param excludeAppointmentID An appointment to ignore, such as the one being updated; use -1 for none.
+     * @return The overlapping appointments, ordered by start.
+     * @throws SQLException If the index has to be loaded and the database cannot be read.
+     */
+    public static synchronized List<Appointments> findOverlapping(int customerID, LocalDateTime start, LocalDateTime end,
+                                                                  int excludeAppointmentID) throws SQLException {
+        ensureLoaded();
+        IntervalTree<Integer> tree = treesByCustomer.get(customerID);
+        if (tree == null) {
+            return List.of();
+        }
+        List<Appointments> overlapping = new ArrayList<>();
+        for (int appointmentID : tree.findOverlapping(AppointmentStore.toMinute(start), AppointmentStore.toMinute(end))) {
+            if (appointmentID != excludeAppointmentID) {
+                overlapping.add(appointments.get(appointmentID));
+            }
+        }
+        return overlapping;
+    }
+
+    /**
+     * Finds the appointments whose title, description, location and type together contain
+     * every word of a query, as {@link TextIndex#search(String, int)} does.
+     *
+     * @param query The words to look for.
+     * @param limit The maximum number of appointments to return.
+     * @return Up to {@code limit} matching appointments, by ascending ID.
+     * @throws SQLException If the index has to be loaded and the database cannot be read.
+     */
+    public static synchronized List<Appointments> search(String query, int limit) throws SQLException {
+        ensureLoaded();
+        List<Appointments> found = new ArrayList<>();
+        for (int appointmentID : words.search(query, limit)) {
+            found.add(appointments.get(appointmentID));
+        }
+        return found;
+    }
+
+    /**
+     * Returns true if an appointment would be found by a query, whether or not it is indexed.
+     *
+     * @param appointment The appointment to check.
+     * @param query       The words to look for.
+     * @return true if its text contains every word of the query.
+     */
+    public static boolean matches(Appointments appointment, String query) {
+        return TextIndex.matches(query, text(appointment));
+    }
+
+    /**
+     * Adds an appointment to the index, replacing any previous entry with the same ID.
+     *
+     * @param appointment The appointment that was written to the database.
+     */
+    public static synchronized void put(Appointments appointment) {
+        if (treesByCustomer == null) {
+            return; // Not loaded yet; the appointment is picked up by the first load
+        }
+        remove(appointment.getAppointmentID());
+        insert(treesByCustomer, appointment);
+        appointments.add(appointment);
+        words.add(appointment.getAppointmentID(), text(appointment));
+    }
+
+    /**
+     * Removes an appointment from the index.
+     *
+     * @param appointmentID The ID of the appointment that was deleted.
+     */
+    public static synchronized void remove(int appointmentID) {
+        if (appointments == null) {
+            return;
+        }
+        Appointments removed = appointments.get(appointmentID);
+        if (removed != null) {
+            appointments.remove(appointmentID);
+            words.remove(appointmentID, text(removed));
+            IntervalTree<Integer> tree = treesByCustomer.get(removed.getCustomerID());
+            tree.remove(AppointmentStore.toMinute(removed.getStart()), appointmentID);
+            if (tree.size() == 0) {
+                treesByCustomer.remove(removed.getCustomerID());
+            }
+        }
+    }
+
+    /**
+     * Removes every appointment of a customer from the index.
+     *
+     * @param customerID The ID of the customer whose appointments were deleted.
+     */
+    public static synchronized void removeCustomer(int customerID) {
+        if (treesByCustomer == null) {
+            return;
+        }
+        IntervalTree<Integer> tree = treesByCustomer.remove(customerID);
+        if (tree != null) {
+            for (int appointmentID : tree.findOverlapping(Long.MIN_VALUE, Long.MAX_VALUE)) {
+                Appointments removed = appointments.get(appointmentID);
+                if (removed != null) {
+                    words.remove(appointmentID, text(removed));
+                    appointments.remove(appointmentID);
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards the index so the next check reloads it from the database.
+     */
+    public static synchronized void invalidate() {
+        treesByCustomer = null;
+        appointments = null;
+        words = null;
+    }
+
+    /**
+     * Loads every appointment into the index if it has not been loaded yet.
+     */
+    private static void ensureLoaded() throws SQLException {
+        if (treesByCustomer != null) {
+            return;
+        }
+        List<Appointments> all = AppointmentAccess.getAllAppointments();
+        Map<Integer, IntervalTree<Integer>> trees = new HashMap<>();
+        AppointmentStore store = new AppointmentStore(all.size());
+        TextIndex text = new TextIndex();
+        all.sort(Comparator.comparingInt(Appointments::getAppointmentID));     // So every posting list is built by appending
+        for (Appointments appointment : all) {
+            insert(trees, appointment);
+            store.add(appointment);
+            text.add(appointment.getAppointmentID(), text(appointment));
+        }
+        treesByCustomer = trees;
+        appointments = store;
+        words = text;
+    }
+
+    /**
+     * Adds an appointment's interval to its customer's tree.
+     */
+    private static void insert(Map<Integer, IntervalTree<Integer>> trees, Appointments appointment) {
+        trees.computeIfAbsent(appointment.getCustomerID(), id -> new IntervalTree<>())
+                .insert(AppointmentStore.toMinute(appointment.getStart()), AppointmentStore.toMinute(appointment.getEnd()),
+                        appointment.getAppointmentID(), appointment.getAppointmentID());
+    }
+
+    /**
+     * Returns the fields of an appointment that are searched.
+     */
+    private static String[] text(Appointments appointment) {
+        return new String[]{appointment.getAppointmentTitle(), appointment.getAppointmentDescription(),
+                appointment.getAppointmentLocation(), appointment.getAppointmentType()};
+    }
+}
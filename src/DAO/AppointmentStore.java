@@ -0,0 +1,274 @@
+package DAO;
+
+import Model.Appointments;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The AppointmentStore class keeps appointments in memory column by column instead of as
+ * one object per appointment.
+ * <p>
+ * Start and end are stored as minutes since the epoch, the IDs as plain ints, and the type
+ * and location as codes into a shared dictionary, so a repeated type or location costs four
+ * bytes per row instead of its own string, and no row holds {@code LocalDateTime} objects.
+ * Titles and descriptions are nearly unique per row, so they are kept as the strings
+ * themselves; coding them would only grow the dictionary, which never drops an entry. Rows
+ * are looked up by ID through an open-addressing table of primitive ints.
+ * </p>
+ * <p>
+ * {@link AppointmentIndex} keeps every appointment here and looks them up by ID;
+ * {@link Appointments} objects are only built when asked for, by {@link #get(int)}. Times
+ * are kept to the minute. The store is thread-safe.
+ * </p>
+ */
+public class AppointmentStore {
+
+    private static final int emptyKey = Integer.MIN_VALUE;     // Marks a free slot in the ID table
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> dictionary = new ArrayList<>();
+
+    private int size;
+    private int[] appointmentIDs;
+    private int[] starts;
+    private int[] ends;
+    private int[] customerIDs;
+    private int[] userIDs;
+    private int[] contactIDs;
+    private String[] titles;
+    private String[] descriptions;
+    private int[] locations;
+    private int[] types;
+
+    private int[] slotKeys;          // Appointment IDs, or emptyKey; the capacity is a power of two
+    private int[] slotRows;          // The row of the appointment in the same position of slotKeys
+
+    /**
+     * Creates an empty store.
+     *
+     * @param initialCapacity How many appointments to make room for up front.
+     */
+    public AppointmentStore(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        appointmentIDs = new int[capacity];
+        starts = new int[capacity];
+        ends = new int[capacity];
+        customerIDs = new int[capacity];
+        userIDs = new int[capacity];
+        contactIDs = new int[capacity];
+        titles = new String[capacity];
+        descriptions = new String[capacity];
+        locations = new int[capacity];
+        types = new int[capacity];
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) * 2;
+        slotKeys = new int[tableSize];
+        slotRows = new int[tableSize];
+        Arrays.fill(slotKeys, emptyKey);
+    }
+
+    /**
+     * Adds an appointment, replacing any appointment with the same ID.
+     *
+     * @param appointment The appointment to add.
+     */
+    public synchronized void add(Appointments appointment) {
+        int row = rowOf(appointment.getAppointmentID());
+        if (row < 0) {
+            if (size == appointmentIDs.length) {
+                grow();
+            }
+            row = size++;
+            putRow(appointment.getAppointmentID(), row);
+        }
+        appointmentIDs[row] = appointment.getAppointmentID();
+        starts[row] = toMinute(appointment.getStart());
+        ends[row] = toMinute(appointment.getEnd());
+        customerIDs[row] = appointment.getCustomerID();
+        userIDs[row] = appointment.getUserID();
+        contactIDs[row] = appointment.getContactID();
+        titles[row] = appointment.getAppointmentTitle();
+        descriptions[row] = appointment.getAppointmentDescription();
+        locations[row] = encode(appointment.getAppointmentLocation());
+        types[row] = encode(appointment.getAppointmentType());
+    }
+
+    /**
+     * Removes an appointment. The last row is moved into its place, so rows are not kept in
+     * insertion order.
+     *
+     * @param appointmentID The ID of the appointment to remove.
+     * @return true if the appointment was in the store.
+     */
+    public synchronized boolean remove(int appointmentID) {
+        int row = rowOf(appointmentID);
+        if (row < 0) {
+            return false;
+        }
+        removeKey(appointmentID);
+        int last = --size;
+        if (row != last) {
+            appointmentIDs[row] = appointmentIDs[last];
+            starts[row] = starts[last];
+            ends[row] = ends[last];
+            customerIDs[row] = customerIDs[last];
+            userIDs[row] = userIDs[last];
+            contactIDs[row] = contactIDs[last];
+            titles[row] = titles[last];
+            descriptions[row] = descriptions[last];
+            locations[row] = locations[last];
+            types[row] = types[last];
+            putRow(appointmentIDs[row], row);
+        }
+        titles[last] = null;     // Let the moved-out strings be collected
+        descriptions[last] = null;
+        return true;
+    }
+
+    /**
+     * Returns the number of appointments in the store.
+     *
+     * @return The appointment count.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Builds the appointment with the given ID.
+     *
+     * @param appointmentID The ID of the appointment.
+     * @return A new Appointments object, or null if the ID is not in the store.
+     */
+    public synchronized Appointments get(int appointmentID) {
+        int row = rowOf(appointmentID);
+        return row < 0 ? null : toAppointment(row);
+    }
+
+    /**
+     * Converts a date and time to the minute count the store keeps.
+     *
+     * @param dateTime The date and time.
+     * @return Whole minutes since 1970-01-01T00:00.
+     */
+    public static int toMinute(LocalDateTime dateTime) {
+        return Math.toIntExact(Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60));
+    }
+
+    /**
+     * Converts a stored minute count back to a date and time.
+     *
+     * @param minute Whole minutes since 1970-01-01T00:00.
+     * @return The date and time.
+     */
+    public static LocalDateTime fromMinute(int minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60L, 0, ZoneOffset.UTC);
+    }
+
+    private Appointments toAppointment(int row) {
+        return new Appointments(appointmentIDs[row], titles[row], descriptions[row],
+                decode(locations[row]), decode(types[row]), fromMinute(starts[row]), fromMinute(ends[row]),
+                customerIDs[row], userIDs[row], contactIDs[row]);
+    }
+
+    private int encode(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    private String decode(int code) {
+        return code < 0 ? null : dictionary.get(code);
+    }
+
+    private void grow() {
+        int capacity = appointmentIDs.length * 2;
+        appointmentIDs = Arrays.copyOf(appointmentIDs, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        customerIDs = Arrays.copyOf(customerIDs, capacity);
+        userIDs = Arrays.copyOf(userIDs, capacity);
+        contactIDs = Arrays.copyOf(contactIDs, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        locations = Arrays.copyOf(locations, capacity);
+        types = Arrays.copyOf(types, capacity);
+
+        // Keep the ID table at most half full
+        int[] oldKeys = slotKeys;
+        int[] oldRows = slotRows;
+        slotKeys = new int[oldKeys.length * 2];
+        slotRows = new int[oldKeys.length * 2];
+        Arrays.fill(slotKeys, emptyKey);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != emptyKey) {
+                putRow(oldKeys[i], oldRows[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the row of an appointment, or -1 if it is not in the store.
+     */
+    private int rowOf(int appointmentID) {
+        int mask = slotKeys.length - 1;
+        for (int i = hash(appointmentID) & mask; slotKeys[i] != emptyKey; i = (i + 1) & mask) {
+            if (slotKeys[i] == appointmentID) {
+                return slotRows[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sets the row of an appointment, adding its ID to the table if needed.
+     */
+    private void putRow(int appointmentID, int row) {
+        int mask = slotKeys.length - 1;
+        int i = hash(appointmentID) & mask;
+        while (slotKeys[i] != emptyKey && slotKeys[i] != appointmentID) {
+            i = (i + 1) & mask;
+        }
+        slotKeys[i] = appointmentID;
+        slotRows[i] = row;
+    }
+
+    /**
+     * Removes an ID from the table, shifting later entries of its probe run back so that
+     * lookups never stop early at the gap.
+     */
+    private void removeKey(int appointmentID) {
+        int mask = slotKeys.length - 1;
+        int gap = hash(appointmentID) & mask;
+        while (slotKeys[gap] != appointmentID) {
+            gap = (gap + 1) & mask;
+        }
+        for (int i = (gap + 1) & mask; slotKeys[i] != emptyKey; i = (i + 1) & mask) {
+            int home = hash(slotKeys[i]) & mask;
+            // Move the entry into the gap if its home position is not between the gap and its current position
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                slotKeys[gap] = slotKeys[i];
+                slotRows[gap] = slotRows[i];
+                gap = i;
+            }
+        }
+        slotKeys[gap] = emptyKey;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
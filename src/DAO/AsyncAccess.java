@@ -0,0 +1,81 @@
+package DAO;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The AsyncAccess class runs DAO calls off the JavaFX Application Thread.
+ * <p>
+ * Queries run on a small pool of daemon threads sized to match the connection pool, so a
+ * slow database never freezes the UI. {@link #load(Query, Consumer, Consumer)} posts the
+ * result, or the failure, back to the JavaFX thread with {@link Platform#runLater(Runnable)}.
+ * </p>
+ */
+public class AsyncAccess {
+
+    /**
+     * A DAO call that may throw, such as {@code AppointmentAccess::getAllAppointments}.
+     *
+     * @param <T> The type of the call's result.
+     */
+    @FunctionalInterface
+    public interface Query<T> {
+        T run() throws Exception;
+    }
+
+    private static final int workerThreads = 10;    // Matches the connection pool's maximum size
+    private static final AtomicInteger workerCount = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(workerThreads, runnable -> {
+        Thread thread = new Thread(runnable, "dao-worker-" + workerCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Runs a DAO call on a background thread.
+     *
+     * @param query The call to run.
+     * @param <T>   The type of the call's result.
+     * @return A future completed with the call's result, or exceptionally with what it threw.
+     */
+    public static <T> CompletableFuture<T> supply(Query<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return query.run();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Runs a DAO call on a background thread and hands its result to the JavaFX thread.
+     *
+     * @param query     The call to run.
+     * @param onSuccess Receives the result on the JavaFX thread.
+     * @param onFailure Receives the failure's cause on the JavaFX thread.
+     * @param <T>       The type of the call's result.
+     */
+    public static <T> void load(Query<T> query, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        supply(query).whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                onFailure.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+        }));
+    }
+
+    /**
+     * Stops accepting new work. Calls already running are allowed to finish.
+     */
+    public static void shutdown() {
+        executor.shutdown();
+    }
+}
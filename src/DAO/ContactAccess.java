@@ -2,12 +2,17 @@ package DAO;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import Helper.DaoMetrics;
 import Helper.JDBC;
+import Helper.ReferenceCache;
+import Helper.RowMapper;
 import Model.Contacts;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * This class represents the data access object (DAO) responsible for retrieving and handling contact-related
@@ -16,24 +21,64 @@ import java.sql.SQLException;
 
 public class ContactAccess {
 
+    // Contacts rarely change, so they are served from memory and reloaded only when the table changes.
+    // The table has no Last_Update column, so a checksum over the columns catches renames and new e-mail addresses.
+    private static final ReferenceCache<Contacts> contactCache = new ReferenceCache<>(ContactAccess::loadContacts,
+            "SELECT COUNT(*), MAX(Contact_ID), SUM(CRC32(CONCAT_WS('|', Contact_ID, Contact_Name, Email))) FROM contacts", Contacts::getId, Contacts::getContactName, 60 * 1000L);
+
     /**
      * Create observablelist from all contacts.
      * @throws SQLException
      * @return contactsObservableList
      */
     public static ObservableList<Contacts> getAllContacts() throws SQLException {
-        ObservableList<Contacts> contactsObservableList = FXCollections.observableArrayList();
-        String sql = "SELECT * from contacts";
-        PreparedStatement ps = JDBC.getConnection().prepareStatement(sql);
-        ResultSet rs = ps.executeQuery();
-        while (rs.next()) {
-            int contactID = rs.getInt("Contact_ID");
-            String contactName = rs.getString("Contact_Name");
-            String contactEmail = rs.getString("Email");
-            Contacts contact = new Contacts(contactID, contactName, contactEmail);
-            contactsObservableList.add(contact);
-        }
-        return contactsObservableList;
+        return FXCollections.observableArrayList(contactCache.getAll());
+    }
+
+    /**
+     * Looks up a contact by ID without querying the database.
+     * @throws SQLException
+     * @param contactID
+     * @return the contact, or null if there is none
+     */
+    public static Contacts getContactById(int contactID) throws SQLException {
+        return contactCache.getById(contactID);
+    }
+
+    /**
+     * Looks up a contact by name without querying the database.
+     * @throws SQLException
+     * @param contactName
+     * @return the contact, or null if there is none
+     */
+    public static Contacts getContactByName(String contactName) throws SQLException {
+        return contactCache.getByName(contactName);
+    }
+
+    /**
+     * Reloads the cached contacts from the database.
+     * @throws SQLException
+     */
+    public static void refreshCache() throws SQLException {
+        contactCache.refresh();
+    }
+
+    /**
+     * Read every contact from the database.
+     * @throws SQLException
+     * @return contactsObservableList
+     */
+    private static List<Contacts> loadContacts() throws SQLException {
+        return DaoMetrics.time("ContactAccess.loadContacts", () -> {
+            ObservableList<Contacts> contactsObservableList = FXCollections.observableArrayList();
+            String sql = "SELECT * from contacts";
+            try (Connection connection = JDBC.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                RowMapper.mapAll(rs, RowMappers.contacts, contactsObservableList);
+            }
+            return contactsObservableList;
+        });
     }
 
     /**
@@ -43,11 +88,9 @@ public class ContactAccess {
      * @return contactID
      */
     public static String findContactID(String contactID) throws SQLException {
-        PreparedStatement ps = JDBC.getConnection().prepareStatement("SELECT * FROM contacts WHERE Contact_Name = ?");
-        ps.setString(1, contactID);
-        ResultSet rs = ps.executeQuery();
-        while (rs.next()) {
-            contactID = rs.getString("Contact_ID");
+        Contacts contact = contactCache.getByName(contactID);
+        if (contact != null) {
+            contactID = String.valueOf(contact.getId());
         }
         return contactID;
     }
@@ -2,12 +2,17 @@ package DAO;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import Helper.DaoMetrics;
 import Helper.JDBC;
+import Helper.ReferenceCache;
+import Helper.RowMapper;
 import Model.Country;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * The CountryAccess class provides methods to access and manage country information in the database.
@@ -15,6 +20,11 @@ import java.sql.SQLException;
  */
 public class CountryAccess extends Country {
 
+    // Countries rarely change, so they are served from memory and reloaded only when the table changes
+    private static final ReferenceCache<CountryAccess> countryCache = new ReferenceCache<>(CountryAccess::loadCountries,
+            "SELECT COUNT(*), MAX(Country_ID), MAX(Last_Update) FROM countries", CountryAccess::getCountryID,
+            CountryAccess::getCountryName, 60 * 1000L);
+
     /**
      * Constructs a CountryAccess object with the provided country ID and name.
      *
@@ -33,18 +43,58 @@ public class CountryAccess extends Country {
      * @throws SQLException If there's an error accessing the database.
      */
     public static ObservableList<CountryAccess> getCountries() throws SQLException {
-        ObservableList<CountryAccess> countriesObservableList = FXCollections.observableArrayList();
-        String sql = "SELECT Country_ID, Country FROM countries";
-        PreparedStatement ps = JDBC.getConnection().prepareStatement(sql);
-        ResultSet rs = ps.executeQuery();
-
-        while (rs.next()) {
-            int countryID = rs.getInt("Country_ID");
-            String countryName = rs.getString("Country");
-            CountryAccess country = new CountryAccess(countryID, countryName);
-            countriesObservableList.add(country);
-        }
-
-        return countriesObservableList;
+        return FXCollections.observableArrayList(countryCache.getAll());
+    }
+
+    /**
+     * Looks up a country by ID without querying the database.
+     *
+     * @param countryID The ID of the country.
+     * @return The country, or null if there is none.
+     * @throws SQLException If the cache has to be loaded and there's an error accessing the database.
+     */
+    public static CountryAccess getCountryById(int countryID) throws SQLException {
+        return countryCache.getById(countryID);
+    }
+
+    /**
+     * Looks up a country by name without querying the database.
+     *
+     * @param countryName The name of the country.
+     * @return The country, or null if there is none.
+     * @throws SQLException If the cache has to be loaded and there's an error accessing the database.
+     */
+    public static CountryAccess getCountryByName(String countryName) throws SQLException {
+        return countryCache.getByName(countryName);
+    }
+
+    /**
+     * Reloads the cached countries from the database.
+     *
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static void refreshCache() throws SQLException {
+        countryCache.refresh();
+    }
+
+    /**
+     * Reads every country from the database.
+     *
+     * @return A list containing all countries with their IDs and names.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    private static List<CountryAccess> loadCountries() throws SQLException {
+        return DaoMetrics.time("CountryAccess.loadCountries", () -> {
+            ObservableList<CountryAccess> countriesObservableList = FXCollections.observableArrayList();
+            String sql = "SELECT Country_ID, Country FROM countries";
+            try (Connection connection = JDBC.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+
+                RowMapper.mapAll(rs, RowMappers.countries, countriesObservableList);
+            }
+
+            return countriesObservableList;
+        });
     }
 }
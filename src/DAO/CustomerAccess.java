@@ -2,51 +2,231 @@ package DAO;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import Helper.ChangeFeed;
+import Helper.DaoMetrics;
+import Helper.IdGenerator;
 import Helper.JDBC;
+import Helper.RowMapper;
 import Model.Customers;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * The CustomerAccess class provides methods to access and manage customer information in the database.
  */
 public class CustomerAccess {
+    private static final int deleteChunkSize = 1000;    // Customer IDs per IN list when deleting in bulk
+    private static final ChangeFeed<Customers> changes = new ChangeFeed<>();
+    private static final IdGenerator customerIDs = new IdGenerator("customers", "customers", "Customer_ID", 20);
+
+    /**
+     * Reserves an ID for a new customer. The ID is never handed out again, even if the
+     * customer is not saved.
+     *
+     * @return A new customer ID.
+     * @throws SQLException If a new block of IDs cannot be reserved.
+     */
+    public static int nextCustomerID() throws SQLException {
+        return customerIDs.next();
+    }
 
     /**
      * Retrieves a list of all customers along with their information from the database.
      *
-     * @param connection The database connection to use for the query.
      * @return An ObservableList containing all customers' information.
      * @throws SQLException If there's an error accessing the database.
      */
-    public static ObservableList<Customers> getAllCustomers(Connection connection) throws SQLException {
+    public static ObservableList<Customers> getAllCustomers() throws SQLException {
+        return DaoMetrics.time("CustomerAccess.getAllCustomers", () -> {
+            // SQL query to retrieve customer information along with corresponding division information
+            String query = "SELECT customers.Customer_ID, customers.Customer_Name, customers.Address, customers.Postal_Code, customers.Phone, customers.Division_ID, first_level_divisions.Division from customers INNER JOIN  first_level_divisions ON customers.Division_ID = first_level_divisions.Division_ID";
 
-        // SQL query to retrieve customer information along with corresponding division information
-        String query = "SELECT customers.Customer_ID, customers.Customer_Name, customers.Address, customers.Postal_Code, customers.Phone, customers.Division_ID, first_level_divisions.Division from customers INNER JOIN  first_level_divisions ON customers.Division_ID = first_level_divisions.Division_ID";
+            ObservableList<Customers> customersObservableList = FXCollections.observableArrayList();
 
-        PreparedStatement ps = JDBC.getConnection().prepareStatement(query);
-        ResultSet rs = ps.executeQuery();
+            try (Connection connection = JDBC.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(query);
+                 ResultSet rs = ps.executeQuery()) {
+
+                RowMapper.mapAll(rs, RowMappers.customers, customersObservableList);
+            }
+
+            return customersObservableList;
+        });
+    }
+
+    /**
+     * Returns the feed of customers added, updated and deleted through this class.
+     *
+     * @return The customer change feed.
+     */
+    public static ChangeFeed<Customers> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Inserts a new customer, counts it in the {@link ReportSummaries report totals}, adds it
+     * to the {@link CustomerIndex} and publishes it to the {@link #getChanges() change feed}.
+     *
+     * @param customer The customer to insert, including its new ID.
+     * @return The inserted customer, or null if no row was inserted.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static Customers addCustomer(Customers customer) throws SQLException {
+        String insertStatement = "INSERT INTO customers (Customer_ID, Customer_Name, Address, Postal_Code, Phone, Create_Date, Created_By, Last_Update, Last_Updated_By, Division_ID) VALUES (?,?,?,?,?,?,?,?,?,?)";
+        ReportSummaries.ensureBuilt();
+        int result = DaoMetrics.time("CustomerAccess.addCustomer", () -> {
+            try (Connection connection = JDBC.getConnection()) {
+                return JDBC.inTransaction(connection, c -> {
+                    int inserted;
+                    try (PreparedStatement ps = c.prepareStatement(insertStatement)) {
+                        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                        ps.setInt(1, customer.getCustomerID());
+                        ps.setString(2, customer.getCustomerName());
+                        ps.setString(3, customer.getCustomerAddress());
+                        ps.setString(4, customer.getCustomerPostalCode());
+                        ps.setString(5, customer.getCustomerPhone());
+                        ps.setTimestamp(6, now);
+                        ps.setString(7, "admin");
+                        ps.setTimestamp(8, now);
+                        ps.setString(9, "admin");
+                        ps.setInt(10, customer.getCustomerDivisionID());
+                        inserted = ps.executeUpdate();
+                    }
+                    ReportSummaries.Changes totals = new ReportSummaries.Changes();
+                    if (inserted > 0) {
+                        totals.addCustomer(c, customer.getCustomerDivisionID(), 1);
+                    }
+                    totals.apply(c);
+                    return inserted;
+                });
+            }
+        }, Integer::intValue);
+        if (result == 0) {
+            return null;
+        }
+        CustomerIndex.put(customer);
+        changes.publish(ChangeFeed.Kind.ADDED, customer.getCustomerID(), customer);
+        return customer;
+    }
 
-        ObservableList<Customers> customersObservableList = FXCollections.observableArrayList();
+    /**
+     * Updates an existing customer, matched by its ID, moves it to its new country in the
+     * {@link ReportSummaries report totals}, refreshes it in the {@link CustomerIndex} and
+     * publishes it to the {@link #getChanges() change feed}.
+     *
+     * @param customer The customer with its updated details.
+     * @return The updated customer, or null if there was no customer with its ID.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static Customers updateCustomer(Customers customer) throws SQLException {
+        String updateStatement = "UPDATE customers SET Customer_Name=?, Address=?, Postal_Code=?, Phone=?, Last_Update=?, Last_Updated_By=?, Division_ID=? WHERE Customer_ID=?";
+        ReportSummaries.ensureBuilt();
+        int result = DaoMetrics.time("CustomerAccess.updateCustomer", () -> {
+            try (Connection connection = JDBC.getConnection()) {
+                return JDBC.inTransaction(connection, c -> {
+                    ReportSummaries.Changes totals = new ReportSummaries.Changes();
+                    totals.addCustomerRows(c, "customers.Customer_ID = ?", -1, customer.getCustomerID());
+                    int updated;
+                    try (PreparedStatement ps = c.prepareStatement(updateStatement)) {
+                        ps.setString(1, customer.getCustomerName());
+                        ps.setString(2, customer.getCustomerAddress());
+                        ps.setString(3, customer.getCustomerPostalCode());
+                        ps.setString(4, customer.getCustomerPhone());
+                        ps.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                        ps.setString(6, "admin");
+                        ps.setInt(7, customer.getCustomerDivisionID());
+                        ps.setInt(8, customer.getCustomerID());
+                        updated = ps.executeUpdate();
+                    }
+                    if (updated > 0) {
+                        totals.addCustomer(c, customer.getCustomerDivisionID(), 1);
+                    }
+                    totals.apply(c);
+                    return updated;
+                });
+            }
+        }, Integer::intValue);
+        if (result == 0) {
+            return null;
+        }
+        CustomerIndex.put(customer);
+        changes.publish(ChangeFeed.Kind.UPDATED, customer.getCustomerID(), customer);
+        return customer;
+    }
 
-        // Retrieve and process customer data from the result set
-        while (rs.next()) {
-            int customerID = rs.getInt("Customer_ID");
-            String customerName = rs.getString("Customer_Name");
-            String customerAddress = rs.getString("Address");
-            String customerPostalCode = rs.getString("Postal_Code");
-            String customerPhone = rs.getString("Phone");
-            int divisionID = rs.getInt("Division_ID");
-            String divisionName = rs.getString("Division");
+    /**
+     * Deletes a customer together with all of their appointments in one transaction.
+     *
+     * @param customerID The ID of the customer to delete.
+     * @return The number of customers deleted (1 if successful, 0 if there was no such customer).
+     * @throws SQLException If there's an error accessing the database; nothing is deleted in that case.
+     */
+    public static int deleteCustomer(int customerID) throws SQLException {
+        return deleteCustomers(List.of(customerID));
+    }
 
-            // Create a Customers object with retrieved data and add it to the list
-            Customers customer = new Customers(customerID, customerName, customerAddress, customerPostalCode, customerPhone, divisionID, divisionName);
-            customersObservableList.add(customer);
+    /**
+     * Deletes many customers together with all of their appointments in one transaction.
+     * A removal is published for each customer; the appointments removed with them are not
+     * published individually.
+     * Each statement covers up to 1000 customers with an {@code IN} list, so a purge costs
+     * four statements per thousand customers, two of them reading what is removed from the
+     * {@link ReportSummaries report totals}, rather than a scan plus one statement per row.
+     *
+     * @param customerIDs The IDs of the customers to delete.
+     * @return The number of customers deleted.
+     * @throws SQLException If there's an error accessing the database; nothing is deleted in that case.
+     */
+    public static int deleteCustomers(Collection<Integer> customerIDs) throws SQLException {
+        List<Integer> ids = new ArrayList<>(customerIDs);
+        ReportSummaries.ensureBuilt();
+        int deleted = DaoMetrics.time("CustomerAccess.deleteCustomers", () -> {
+            try (Connection connection = JDBC.getConnection()) {
+                return JDBC.inTransaction(connection, c -> {
+                    ReportSummaries.Changes totals = new ReportSummaries.Changes();
+                    int removed = 0;
+                    for (int from = 0; from < ids.size(); from += deleteChunkSize) {
+                        List<Integer> chunk = ids.subList(from, Math.min(from + deleteChunkSize, ids.size()));
+                        String in = "Customer_ID IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+                        totals.addAppointmentRows(c, in, -1, chunk.toArray());
+                        totals.addCustomerRows(c, "customers." + in, -1, chunk.toArray());
+                        deleteWhereCustomerIn("DELETE FROM appointments", chunk, c);
+                        removed += deleteWhereCustomerIn("DELETE FROM customers", chunk, c);
+                    }
+                    totals.apply(c);
+                    return removed;
+                });
+            }
+        }, Integer::intValue);
+        for (int customerID : ids) {
+            AppointmentIndex.removeCustomer(customerID);
+            CustomerIndex.remove(customerID);
+            changes.publish(ChangeFeed.Kind.REMOVED, customerID, null);
         }
+        return deleted;
+    }
 
-        return customersObservableList;
+    /**
+     * Runs a delete statement restricted to a list of customer IDs.
+     *
+     * @return The number of rows deleted.
+     */
+    private static int deleteWhereCustomerIn(String delete, List<Integer> customerIDs, Connection connection) throws SQLException {
+        String placeholders = String.join(",", Collections.nCopies(customerIDs.size(), "?"));
+        try (PreparedStatement ps = JDBC.prepareUncached(connection, delete + " WHERE Customer_ID IN (" + placeholders + ")")) {
+            for (int i = 0; i < customerIDs.size(); i++) {
+                ps.setInt(i + 1, customerIDs.get(i));
+            }
+            return ps.executeUpdate();
+        }
     }
 }
@@ -0,0 +1,117 @@
+package DAO;
+
+import Helper.TextIndex;
+import Model.Customers;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The CustomerIndex class keeps an in-memory {@link TextIndex} of customers' names, addresses
+ * and phone numbers, so the search box does not have to scan the customers table.
+ * <p>
+ * The index is loaded from the database on first use and is then kept in sync by the
+ * {@link CustomerAccess} write methods. Changes made by other workstations are only picked up
+ * after {@link #invalidate()}.
+ * </p>
+ */
+public class CustomerIndex {
+    private static Map<Integer, Customers> customers;     // Every indexed customer, by ID
+    private static TextIndex words;                       // Customer IDs by the words of their text
+
+    /**
+     * Finds the customers whose name, address and phone number together contain every word
+     * of a query, as {@link TextIndex#search(String, int)} does.
+     *
+     * @param query The words to look for.
+     * @param limit The maximum number of customers to return.
+     * @return Up to {@code limit} matching customers, by ascending ID.
+     * @throws SQLException If the index has to be loaded and the database cannot be read.
+     */
+    public static synchronized List<Customers> search(String query, int limit) throws SQLException {
+        ensureLoaded();
+        List<Customers> found = new ArrayList<>();
+        for (int customerID : words.search(query, limit)) {
+            found.add(customers.get(customerID));
+        }
+        return found;
+    }
+
+    /**
+     * Returns true if a customer would be found by a query, whether or not it is indexed.
+     *
+     * @param customer The customer to check.
+     * @param query    The words to look for.
+     * @return true if its text contains every word of the query.
+     */
+    public static boolean matches(Customers customer, String query) {
+        return TextIndex.matches(query, text(customer));
+    }
+
+    /**
+     * Adds a customer to the index, replacing any previous entry with the same ID.
+     *
+     * @param customer The customer that was written to the database.
+     */
+    public static synchronized void put(Customers customer) {
+        if (customers == null) {
+            return; // Not loaded yet; the customer is picked up by the first load
+        }
+        remove(customer.getCustomerID());
+        customers.put(customer.getCustomerID(), customer);
+        words.add(customer.getCustomerID(), text(customer));
+    }
+
+    /**
+     * Removes a customer from the index.
+     *
+     * @param customerID The ID of the customer that was deleted.
+     */
+    public static synchronized void remove(int customerID) {
+        if (customers == null) {
+            return;
+        }
+        Customers removed = customers.remove(customerID);
+        if (removed != null) {
+            words.remove(customerID, text(removed));
+        }
+    }
+
+    /**
+     * Discards the index so the next search reloads it from the database.
+     */
+    public static synchronized void invalidate() {
+        customers = null;
+        words = null;
+    }
+
+    /**
+     * Loads every customer into the index if it has not been loaded yet.
+     */
+    private static void ensureLoaded() throws SQLException {
+        if (customers != null) {
+            return;
+        }
+        List<Customers> all = new ArrayList<>(CustomerAccess.getAllCustomers());
+        all.sort(Comparator.comparingInt(Customers::getCustomerID));     // So every posting list is built by appending
+        Map<Integer, Customers> byID = new HashMap<>();
+        TextIndex text = new TextIndex();
+        for (Customers customer : all) {
+            byID.put(customer.getCustomerID(), customer);
+            text.add(customer.getCustomerID(), text(customer));
+        }
+        customers = byID;
+        words = text;
+    }
+
+    /**
+     * Returns the fields of a customer that are searched.
+     */
+    private static String[] text(Customers customer) {
+        return new String[]{customer.getCustomerName(), customer.getCustomerAddress(), customer.getCustomerPhone()};
+    }
+}
@@ -2,18 +2,29 @@ package DAO;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import Helper.DaoMetrics;
 import Helper.JDBC;
+import Helper.ReferenceCache;
+import Helper.RowMapper;
 import Model.FirstLevelDivision;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * The FirstLevelDivisionAccess class provides methods to access and manage first-level division information in the database.
  */
 public class FirstLevelDivisionAccess extends FirstLevelDivision {
 
+    // Divisions rarely change, so they are served from memory and reloaded only when the table changes
+    private static final ReferenceCache<FirstLevelDivisionAccess> divisionCache = new ReferenceCache<>(
+            FirstLevelDivisionAccess::loadFirstLevelDivisions,
+            "SELECT COUNT(*), MAX(Division_ID), MAX(Last_Update) FROM first_level_divisions",
+            FirstLevelDivisionAccess::getDivisionID, FirstLevelDivisionAccess::getDivisionName, 60 * 1000L);
+
     /**
      * Constructs a FirstLevelDivisionAccess object with the provided division ID, division name, and country ID.
      *
@@ -33,40 +44,75 @@ public class FirstLevelDivisionAccess extends FirstLevelDivision {
      * @throws SQLException If there's an error accessing the database.
      */
     public static ObservableList<FirstLevelDivisionAccess> getAllFirstLevelDivisions() throws SQLException {
-        ObservableList<FirstLevelDivisionAccess> firstLevelDivisionsObservableList = FXCollections.observableArrayList();
-        String sql = "SELECT * from first_level_divisions";
-        PreparedStatement ps = JDBC.getConnection().prepareStatement(sql);
-        ResultSet rs = ps.executeQuery();
+        return FXCollections.observableArrayList(divisionCache.getAll());
+    }
 
-        // Retrieve and process first-level division data from the result set
-        while (rs.next()) {
-            int divisionID = rs.getInt("Division_ID");
-            String divisionName = rs.getString("Division");
-            int country_ID = rs.getInt("COUNTRY_ID");
+    /**
+     * Looks up a first-level division by ID without querying the database.
+     *
+     * @param divisionID The ID of the division.
+     * @return The division, or null if there is none.
+     * @throws SQLException If the cache has to be loaded and there's an error accessing the database.
+     */
+    public static FirstLevelDivisionAccess getDivisionById(int divisionID) throws SQLException {
+        return divisionCache.getById(divisionID);
+    }
 
-            // Create a FirstLevelDivisionAccess object with retrieved data and add it to the list
-            FirstLevelDivisionAccess firstLevelDivision = new FirstLevelDivisionAccess(divisionID, divisionName, country_ID);
-            firstLevelDivisionsObservableList.add(firstLevelDivision);
-        }
+    /**
+     * Looks up a first-level division by name without querying the database.
+     *
+     * @param divisionName The name of the division.
+     * @return The division, or null if there is none.
+     * @throws SQLException If the cache has to be loaded and there's an error accessing the database.
+     */
+    public static FirstLevelDivisionAccess getDivisionByName(String divisionName) throws SQLException {
+        return divisionCache.getByName(divisionName);
+    }
 
-        return firstLevelDivisionsObservableList;
+    /**
+     * Reloads the cached first-level divisions from the database.
+     *
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static void refreshCache() throws SQLException {
+        divisionCache.refresh();
     }
 
-    public static ObservableList<FirstLevelDivisionAccess> getDivisionsByCountryID(int countryID) throws SQLException {
-        ObservableList<FirstLevelDivisionAccess> firstLevelDivisionsObservableList = FXCollections.observableArrayList();
-        String sql = "SELECT * FROM first_level_divisions WHERE COUNTRY_ID = ?";
-        PreparedStatement ps = JDBC.getConnection().prepareStatement(sql);
-        ps.setInt(1, countryID);
-        ResultSet rs = ps.executeQuery();
+    /**
+     * Reads every first-level division from the database.
+     *
+     * @return A list containing all first-level divisions' information.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    private static List<FirstLevelDivisionAccess> loadFirstLevelDivisions() throws SQLException {
+        return DaoMetrics.time("FirstLevelDivisionAccess.loadFirstLevelDivisions", () -> {
+            ObservableList<FirstLevelDivisionAccess> firstLevelDivisionsObservableList = FXCollections.observableArrayList();
+            String sql = "SELECT * from first_level_divisions";
+            try (Connection connection = JDBC.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
 
-        while (rs.next()) {
-            int divisionID = rs.getInt("Division_ID");
-            String divisionName = rs.getString("Division");
+                RowMapper.mapAll(rs, RowMappers.divisions, firstLevelDivisionsObservableList);
+            }
 
-            FirstLevelDivisionAccess firstLevelDivision = new FirstLevelDivisionAccess(divisionID, divisionName, countryID);
-            firstLevelDivisionsObservableList.add(firstLevelDivision);
-        }
+            return firstLevelDivisionsObservableList;
+        });
+    }
 
+    /**
+     * Retrieves the first-level divisions of a country from the cache.
+     *
+     * @param countryID The ID of the country.
+     * @return An ObservableList containing the country's divisions.
+     * @throws SQLException If the cache has to be loaded and there's an error accessing the database.
+     */
+    public static ObservableList<FirstLevelDivisionAccess> getDivisionsByCountryID(int countryID) throws SQLException {
+        ObservableList<FirstLevelDivisionAccess> firstLevelDivisionsObservableList = FXCollections.observableArrayList();
+        for (FirstLevelDivisionAccess division : divisionCache.getAll()) {
+            if (division.getCountry_ID() == countryID) {
+                firstLevelDivisionsObservableList.add(division);
+            }
+        }
         return firstLevelDivisionsObservableList;
     }
 }
@@ -2,14 +2,19 @@ package DAO;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import Helper.JDBC;
+import Helper.DaoMetrics;
 import Model.Appointments;
+import Model.Contacts;
+import Model.ReportMonth;
+import Model.ReportType;
 import Model.Reports;
 
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * The ReportAccess class provides methods to access and generate reports related to appointments and countries.
@@ -35,30 +40,70 @@ public class ReportAccess extends Appointments {
     }
 
     /**
-     * Retrieves a list of countries and the total number of appointments per country.
+     * Retrieves a list of countries and the number of customers in each, largest first.
+     * Reads the maintained {@link ReportSummaries report totals}.
      *
-     * @return An ObservableList containing country-wise appointment counts.
+     * @return An ObservableList containing country-wise customer counts.
      * @throws SQLException If there's an error accessing the database.
      */
     public static ObservableList<Reports> getCountries() throws SQLException {
-        ObservableList<Reports> countriesObservableList = FXCollections.observableArrayList();
-
-        // SQL query to retrieve countries and their appointment counts
-        String sql = "select countries.Country, count(*) as countryCount from customers inner join first_level_divisions on customers.Division_ID = first_level_divisions.Division_ID inner join countries on countries.Country_ID = first_level_divisions.Country_ID where  customers.Division_ID = first_level_divisions.Division_ID group by first_level_divisions.Country_ID order by count(*) desc";
-
-        PreparedStatement ps = JDBC.getConnection().prepareStatement(sql);
-        ResultSet rs = ps.executeQuery();
+        return DaoMetrics.time("ReportAccess.getCountries", () -> {
+            ObservableList<Reports> countriesObservableList = FXCollections.observableArrayList();
+            ReportSummaries.totals(ReportSummaries.byCountry).forEach((country, total) -> countriesObservableList.add(new Reports(country, total)));
+            countriesObservableList.sort(Comparator.comparingInt(Reports::getCountryCount).reversed());
+            return countriesObservableList;
+        });
+    }
 
-        // Retrieve and process country-wise appointment count data from the result set
-        while (rs.next()) {
-            String countryName = rs.getString("Country");
-            int countryCount = rs.getInt("countryCount");
+    /**
+     * Counts appointments per type from the maintained {@link ReportSummaries report totals}.
+     *
+     * @return One row per appointment type, ordered by type.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static ObservableList<ReportType> getAppointmentTotalsByType() throws SQLException {
+        return DaoMetrics.time("ReportAccess.getAppointmentTotalsByType", () -> {
+            ObservableList<ReportType> totals = FXCollections.observableArrayList();
+            ReportSummaries.totals(ReportSummaries.byType).forEach((type, total) -> totals.add(new ReportType(type, total)));
+            return totals;
+        });
+    }
 
-            // Create a Reports object with retrieved data and add it to the list
-            Reports report = new Reports(countryName, countryCount);
-            countriesObservableList.add(report);
-        }
+    /**
+     * Counts appointments per calendar month, across all years, from the maintained
+     * {@link ReportSummaries report totals}. Months are those of the start in Eastern time.
+     *
+     * @return One row per month that has appointments, in calendar order.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static ObservableList<ReportMonth> getAppointmentTotalsByMonth() throws SQLException {
+        return DaoMetrics.time("ReportAccess.getAppointmentTotalsByMonth", () -> {
+            int[] counts = new int[12];
+            ReportSummaries.totals(ReportSummaries.byMonth).forEach((month, total) -> counts[Integer.parseInt(month) - 1] = total);
+            ObservableList<ReportMonth> totals = FXCollections.observableArrayList();
+            for (Month month : Month.values()) {
+                if (counts[month.ordinal()] > 0) {
+                    totals.add(new ReportMonth(month.name(), counts[month.ordinal()]));
+                }
+            }
+            return totals;
+        });
+    }
 
-        return countriesObservableList;
+    /**
+     * Counts appointments per contact from the maintained {@link ReportSummaries report totals}.
+     *
+     * @return Each contact's name and number of appointments, ordered by name.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    public static Map<String, Integer> getAppointmentTotalsByContact() throws SQLException {
+        return DaoMetrics.time("ReportAccess.getAppointmentTotalsByContact", () -> {
+            Map<String, Integer> totals = new TreeMap<>();
+            for (Map.Entry<String, Integer> entry : ReportSummaries.totals(ReportSummaries.byContact).entrySet()) {
+                Contacts contact = ContactAccess.getContactById(Integer.parseInt(entry.getKey()));
+                totals.put(contact == null ? "Contact " + entry.getKey() : contact.getContactName(), entry.getValue());
+            }
+            return totals;
+        });
     }
 }
@@ -0,0 +1,227 @@
+package DAO;
+
+import Helper.DaoMetrics;
+import Helper.JDBC;
+import Helper.TimeUtility;
+import Model.Appointments;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The ReportSummaries class maintains the report totals in the {@code report_totals} table.
+ * <p>
+ * Each row holds the total of one report line: appointments per type, per month, per contact,
+ * and customers per country. Months are those of the start in
+ * {@link TimeUtility#businessZone}, so every workstation agrees on them, and contacts are
+ * stored by ID. The appointment and customer write methods collect their effect on the totals
+ * in a {@link Changes} and apply it in the same transaction as the write, so the report tabs
+ * can read a few rows instead of grouping the tables. {@link #rebuild()} recomputes every
+ * total from the tables, to repair the table or to fill it the first time; that happens on
+ * its own if the table is empty when it is first used.
+ * </p>
+ */
+public class ReportSummaries {
+    static final String byType = "type";
+    static final String byMonth = "month";
+    static final String byContact = "contact";
+    static final String byCountry = "country";
+
+    private static final String upsertSql = "INSERT INTO report_totals (Dimension, Item, Total) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE Total = Total + VALUES(Total)";
+    private static final String countrySql = "SELECT countries.Country FROM customers "
+            + "INNER JOIN first_level_divisions ON customers.Division_ID = first_level_divisions.Division_ID "
+            + "INNER JOIN countries ON countries.Country_ID = first_level_divisions.Country_ID";
+    private static final int batchSize = 1000;
+    private static boolean built;                   // Checked once per run, before the first read or write
+
+    /**
+     * Recomputes every total from the appointments and customers tables in one transaction.
+     * The transaction first locks report_totals, so writes on other connections wait to apply
+     * their changes until the rebuild commits, and are then added to the rebuilt totals.
+     *
+     * @return The number of report lines written.
+     * @throws SQLException If there's an error accessing the database; the totals are left as they were.
+     */
+    public static synchronized int rebuild() throws SQLException {
+        int lines = DaoMetrics.time("ReportSummaries.rebuild", () -> {
+            try (Connection connection = JDBC.getConnection()) {
+                return JDBC.inTransaction(connection, c -> {
+                    // Before the tables are read, so every write that already changed the totals has committed
+                    try (PreparedStatement ps = c.prepareStatement("SELECT Dimension, Item FROM report_totals FOR UPDATE");
+                         ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            // Only the locks are needed
+                        }
+                    }
+                    try (PreparedStatement ps = c.prepareStatement("DELETE FROM report_totals")) {
+                        ps.executeUpdate();
+                    }
+                    Changes totals = new Changes();
+                    totals.addAppointmentRows(c, "1 = 1", 1);
+                    totals.addCustomerRows(c, "1 = 1", 1);
+                    return totals.apply(c);
+                });
+            }
+        }, Integer::intValue);
+        built = true;
+        return lines;
+    }
+
+    /**
+     * Fills the totals if the table is empty, the first time this is called in a run.
+     * Write methods call this before they start their transaction.
+     *
+     * @throws SQLException If there's an error accessing the database.
+     */
+    static synchronized void ensureBuilt() throws SQLException {
+        if (built) {
+            return;
+        }
+        boolean empty;
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT COUNT(*) FROM report_totals");
+             ResultSet rs = ps.executeQuery()) {
+            empty = !rs.next() || rs.getInt(1) == 0;
+        }
+        if (empty) {
+            rebuild();
+        }
+        built = true;
+    }
+
+    /**
+     * Reads the non-zero totals of one dimension, ordered by item.
+     *
+     * @param dimension One of the dimension names, such as {@link #byType}.
+     * @return Each item's total, in item order.
+     * @throws SQLException If there's an error accessing the database.
+     */
+    static Map<String, Integer> totals(String dimension) throws SQLException {
+        ensureBuilt();
+        Map<String, Integer> totals = new LinkedHashMap<>();
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(
+                     "SELECT Item, Total FROM report_totals WHERE Dimension = ? AND Total > 0 ORDER BY Item")) {
+            ps.setString(1, dimension);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    totals.put(rs.getString(1), rs.getInt(2));
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * The changes a write makes to the totals, collected so each report line is written once.
+     */
+    static class Changes {
+        private final Map<String, Map<String, Integer>> deltas = new TreeMap<>();   // Sorted, so lines are always locked in the same order
+
+        /**
+         * Counts an appointment in, or out with a sign of -1.
+         */
+        void addAppointment(Appointments appointment, int sign) {
+            add(appointment.getAppointmentType(), TimeUtility.toBusiness(appointment.getStart()), appointment.getContactID(), sign);
+        }
+
+        /**
+         * Counts the appointments that match a condition in, or out with a sign of -1. Call it
+         * before deleting or changing them. The condition varies by caller, so the statement is
+         * not cached.
+         */
+        void addAppointmentRows(Connection connection, String where, int sign, Object... parameters) throws SQLException {
+            try (PreparedStatement ps = JDBC.prepareUncached(connection, "SELECT Type, Start, Contact_ID FROM appointments WHERE " + where)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    ps.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        LocalDateTime start = rs.getObject(2, LocalDateTime.class);
+                        add(rs.getString(1), TimeUtility.business().fromUtc(start), rs.getInt(3), sign);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Counts the customers that match a condition in, or out with a sign of -1. The
+         * condition can refer to the customers and first_level_divisions tables. The statement
+         * is not cached.
+         */
+        void addCustomerRows(Connection connection, String where, int sign, Object... parameters) throws SQLException {
+            try (PreparedStatement ps = JDBC.prepareUncached(connection, countrySql + " WHERE " + where)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    ps.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        add(byCountry, rs.getString(1), sign);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Counts a customer in the given division in, or out with a sign of -1.
+         */
+        void addCustomer(Connection connection, int divisionID, int sign) throws SQLException {
+            try (PreparedStatement ps = connection.prepareStatement("SELECT countries.Country FROM first_level_divisions "
+                    + "INNER JOIN countries ON countries.Country_ID = first_level_divisions.Country_ID WHERE first_level_divisions.Division_ID = ?")) {
+                ps.setInt(1, divisionID);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        add(byCountry, rs.getString(1), sign);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds the collected changes to the totals on the given connection.
+         *
+         * @return The number of report lines changed.
+         */
+        int apply(Connection connection) throws SQLException {
+            int lines = 0;
+            try (PreparedStatement ps = connection.prepareStatement(upsertSql)) {
+                for (Map.Entry<String, Map<String, Integer>> dimension : deltas.entrySet()) {
+                    for (Map.Entry<String, Integer> item : dimension.getValue().entrySet()) {
+                        if (item.getValue() == 0) {
+                            continue;
+                        }
+                        ps.setString(1, dimension.getKey());
+                        ps.setString(2, item.getKey());
+                        ps.setInt(3, item.getValue());
+                        ps.addBatch();
+                        if (++lines % batchSize == 0) {
+                            ps.executeBatch();
+                        }
+                    }
+                }
+                ps.executeBatch();
+            }
+            deltas.clear();
+            return lines;
+        }
+
+        private void add(String type, LocalDateTime businessStart, int contactID, int sign) {
+            add(byType, type, sign);
+            add(byMonth, String.valueOf(businessStart.getMonthValue()), sign);
+            add(byContact, String.valueOf(contactID), sign);
+        }
+
+        private void add(String dimension, String item, int sign) {
+            if (item != null) {
+                deltas.computeIfAbsent(dimension, d -> new TreeMap<>()).merge(item, sign, Integer::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package DAO;
+
+import Helper.RowMapper;
+import Helper.TimeUtility;
+import Model.Appointments;
+import Model.Contacts;
+import Model.Customers;
+
+import java.time.LocalDateTime;
+
+/**
+ * The RowMappers class holds the row mappers shared by the DAO classes, one per table.
+ * Each one looks up its columns once per result set and then reads every row by index.
+ */
+public class RowMappers {
+
+    /**
+     * Maps rows of {@code SELECT * FROM appointments}, converting start and end from UTC to local time.
+     */
+    public static final RowMapper.Compiler<Appointments> appointments = columns -> {
+        int appointmentID = columns.get("Appointment_ID");
+        int title = columns.get("Title");
+        int description = columns.get("Description");
+        int location = columns.get("Location");
+        int type = columns.get("Type");
+        int start = columns.get("Start");
+        int end = columns.get("End");
+        int customerID = columns.get("Customer_ID");
+        int userID = columns.get("User_ID");
+        int contactID = columns.get("Contact_ID");
+        return rs -> {
+            LocalDateTime startTime = rs.getObject(start, LocalDateTime.class);
+            LocalDateTime endTime = rs.getObject(end, LocalDateTime.class);
+            return new Appointments(rs.getInt(appointmentID), rs.getString(title), rs.getString(description),
+                    rs.getString(location), rs.getString(type), TimeUtility.toLocal(startTime), TimeUtility.toLocal(endTime),
+                    rs.getInt(customerID), rs.getInt(userID), rs.getInt(contactID));
+        };
+    };
+
+    /**
+     * Maps rows of customers joined with their first-level division's name.
+     */
+    public static final RowMapper.Compiler<Customers> customers = columns -> {
+        int customerID = columns.get("Customer_ID");
+        int customerName = columns.get("Customer_Name");
+        int address = columns.get("Address");
+        int postalCode = columns.get("Postal_Code");
+        int phone = columns.get("Phone");
+        int divisionID = columns.get("Division_ID");
+        int division = columns.get("Division");
+        return rs -> new Customers(rs.getInt(customerID), rs.getString(customerName), rs.getString(address),
+                rs.getString(postalCode), rs.getString(phone), rs.getInt(divisionID), rs.getString(division));
+    };
+
+    /**
+     * Maps rows of {@code SELECT * FROM contacts}.
+     */
+    public static final RowMapper.Compiler<Contacts> contacts = columns -> {
+        int contactID = columns.get("Contact_ID");
+        int contactName = columns.get("Contact_Name");
+        int email = columns.get("Email");
+        return rs -> new Contacts(rs.getInt(contactID), rs.getString(contactName), rs.getString(email));
+    };
+
+    /**
+     * Maps rows of {@code SELECT * FROM users}.
+     */
+    public static final RowMapper.Compiler<UserAccess> users = columns -> {
+        int userID = columns.get("User_ID");
+        int userName = columns.get("User_Name");
+        int password = columns.get("Password");
+        return rs -> new UserAccess(rs.getInt(userID), rs.getString(userName), rs.getString(password));
+    };
+
+    /**
+     * Maps rows of the countries table.
+     */
+    public static final RowMapper.Compiler<CountryAccess> countries = columns -> {
+        int countryID = columns.get("Country_ID");
+        int country = columns.get("Country");
+        return rs -> new CountryAccess(rs.getInt(countryID), rs.getString(country));
+    };
+
+    /**
+     * Maps rows of {@code SELECT * FROM first_level_divisions}.
+     */
+    public static final RowMapper.Compiler<FirstLevelDivisionAccess> divisions = columns -> {
+        int divisionID = columns.get("Division_ID");
+        int division = columns.get("Division");
+        int countryID = columns.get("Country_ID");
+        return rs -> new FirstLevelDivisionAccess(rs.getInt(divisionID), rs.getString(division), rs.getInt(countryID));
+    };
+}
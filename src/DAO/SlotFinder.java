@@ -0,0 +1,143 @@
+package DAO;
+
+import Helper.BusinessHours;
+import Helper.TimeUtility;
+import Model.Appointments;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The SlotFinder class finds times when a customer and a contact are both free.
+ * <p>
+ * The search range is divided into 15-minute slots, one bit each. A bitmap of the slots
+ * inside business hours is cleared wherever the customer or the contact already has an
+ * appointment, and then ANDed with copies of itself shifted by up to the length of the
+ * appointment, which leaves a bit set exactly where a long enough free run starts. Each of
+ * those steps is a pass over a few words per week searched. The customer's appointments come
+ * from the {@link AppointmentIndex} and the contact's from one indexed query.
+ * </p>
+ */
+public class SlotFinder {
+    private static final int slotSeconds = 15 * 60;
+
+    /**
+     * Finds the first free times for an appointment. The slots returned do not overlap each
+     * other, start on a quarter hour, and lie within business hours.
+     *
+     * @param customerID The customer who must be free, or -1 for none.
+     * @param contactID  The contact who must be free, or -1 for none.
+     * @param duration   The length of the appointment.
+     * @param from       The earliest local start.
+     * @param to         The latest local end.
+     * @param count      The maximum number of slots to return.
+     * @return The local starts of up to {@code count} free slots, earliest first.
+     * @throws SQLException If the existing appointments cannot be read.
+     */
+    public static List<LocalDateTime> findFreeSlots(int customerID, int contactID, Duration duration,
+                                                    LocalDateTime from, LocalDateTime to, int count) throws SQLException {
+        long first = Math.floorDiv(utcSeconds(from) + slotSeconds - 1, slotSeconds) * slotSeconds;
+        int slots = (int) Math.max(0, Math.floorDiv(utcSeconds(to) - first, slotSeconds));
+        int length = (int) Math.max(1, (duration.getSeconds() + slotSeconds - 1) / slotSeconds);
+        List<LocalDateTime> found = new ArrayList<>();
+        if (slots < length || count <= 0) {
+            return found;
+        }
+
+        long[] free = new long[(slots + 63) >>> 6];
+        BusinessHours businessHours = BusinessHours.standard();
+        for (int slot = 0; slot < slots; slot++) {
+            long start = first + (long) slot * slotSeconds;
+            if (businessHours.isOpen(start, start + slotSeconds)) {
+                free[slot >>> 6] |= 1L << slot;
+            }
+        }
+        if (customerID > 0) {
+            clearBusy(free, slots, first, AppointmentIndex.findOverlapping(customerID, from, to, -1));
+        }
+        if (contactID > 0) {
+            clearBusy(free, slots, first, AppointmentAccess.getContactAppointmentsBetween(contactID, from, to));
+        }
+
+        // Keep the bits that start a run of at least length free slots, doubling the run each pass
+        long[] runs = free.clone();
+        for (int covered = 1; covered < length; ) {
+            int shift = Math.min(covered, length - covered);
+            andShifted(runs, shift);
+            covered += shift;
+        }
+        clearRange(runs, slots - length + 1, free.length << 6);
+
+        for (int slot = nextSetBit(runs, 0); slot >= 0 && found.size() < count; slot = nextSetBit(runs, slot + length)) {
+            long start = first + (long) slot * slotSeconds;
+            if (businessHours.isOpen(start, start + duration.getSeconds())) {
+                found.add(TimeUtility.toLocal(LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC)));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Clears the slots that any of the appointments overlaps, even in part.
+     */
+    private static void clearBusy(long[] free, int slots, long first, List<Appointments> appointments) {
+        for (Appointments appointment : appointments) {
+            long start = Math.floorDiv(utcSeconds(appointment.getStart()) - first, slotSeconds);
+            long end = Math.floorDiv(utcSeconds(appointment.getEnd()) - first + slotSeconds - 1, slotSeconds);
+            clearRange(free, (int) Math.max(0, start), (int) Math.min(slots, end));
+        }
+    }
+
+    /**
+     * Clears the bits from {@code from} up to but not including {@code to}.
+     */
+    private static void clearRange(long[] bits, int from, int to) {
+        for (int bit = Math.max(0, from); bit < to; ) {
+            int word = bit >>> 6;
+            int end = Math.min(to, (word + 1) << 6);
+            long mask = (end - bit == 64 ? -1L : ((1L << (end - bit)) - 1)) << bit;
+            bits[word] &= ~mask;
+            bit = end;
+        }
+    }
+
+    /**
+     * Keeps each bit only if the bit {@code shift} places above it is also set.
+     */
+    private static void andShifted(long[] bits, int shift) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int word = 0; word < bits.length; word++) {
+            long low = word + wordShift < bits.length ? bits[word + wordShift] : 0;
+            long high = word + wordShift + 1 < bits.length ? bits[word + wordShift + 1] : 0;
+            long shifted = bitShift == 0 ? low : (low >>> bitShift) | (high << (64 - bitShift));
+            bits[word] &= shifted;
+        }
+    }
+
+    /**
+     * Returns the first set bit at or after {@code from}, or -1 if there is none.
+     */
+    private static int nextSetBit(long[] bits, int from) {
+        int word = from >>> 6;
+        if (word >= bits.length) {
+            return -1;
+        }
+        long remaining = bits[word] & (-1L << from);
+        while (remaining == 0) {
+            if (++word == bits.length) {
+                return -1;
+            }
+            remaining = bits[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(remaining);
+    }
+
+    private static long utcSeconds(LocalDateTime local) {
+        return TimeUtility.local().toUtcSeconds(local.toEpochSecond(ZoneOffset.UTC));
+    }
+}
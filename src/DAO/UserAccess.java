@@ -2,12 +2,17 @@ package DAO;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import Helper.DaoMetrics;
 import Helper.JDBC;
+import Helper.ReferenceCache;
+import Helper.RowMapper;
 import Model.Users;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * The UserAccess class provides methods to access and manipulate user-related data
@@ -17,38 +22,52 @@ import java.sql.SQLException;
 
 public class UserAccess extends Users {
 
+    // Users rarely change, so they are served from memory and reloaded only when the table changes
+    private static final ReferenceCache<UserAccess> userCache = new ReferenceCache<>(UserAccess::loadUsers,
+            "SELECT COUNT(*), MAX(User_ID), MAX(Last_Update) FROM users", UserAccess::getUserID, UserAccess::getUserName,
+            60 * 1000L);
+
     public UserAccess(int userID, String userName, String userPassword) {
         super();
+        this.userID = userID;
+        this.userName = userName;
+        this.userPassword = userPassword;
     }
 
     /**
      * This method validates the user for the login form.
      * @param password
      * @param username
+     * @return The user's ID, or -1 if the credentials are wrong.
+     * @throws SQLException If the database cannot be reached, so it is not mistaken for a failed login.
      */
-    public static int validateUser(String username, String password)
+    public static int validateUser(String username, String password) throws SQLException
     {
-        try
-        {
-            String sqlQuery = "SELECT * FROM users WHERE user_name = '" + username + "' AND password = '" + password +"'";
+        // Bound parameters keep the SQL text constant so the statement is reused from the cache
+        String sqlQuery = "SELECT * FROM users WHERE user_name = ? AND password = ?";
 
-            PreparedStatement ps = JDBC.getConnection().prepareStatement(sqlQuery);
-            ResultSet rs = ps.executeQuery();
-            rs.next();
-            if (rs.getString("User_Name").equals(username))
+        return DaoMetrics.time("UserAccess.validateUser", () ->
+        {
+            try (Connection connection = JDBC.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sqlQuery))
             {
-                if (rs.getString("Password").equals(password))
+                ps.setString(1, username);
+                ps.setString(2, password);
+                try (ResultSet rs = ps.executeQuery())
                 {
-                    return rs.getInt("User_ID");
+                    // No row means the credentials are wrong, which is not a database error
+                    if (rs.next() && rs.getString("User_Name").equals(username))
+                    {
+                        if (rs.getString("Password").equals(password))
+                        {
+                            return rs.getInt("User_ID");
 
+                        }
+                    }
                 }
             }
-        }
-        catch (SQLException e)
-        {
-            e.printStackTrace();
-        }
-        return -1;
+            return -1;
+        }, userId -> userId > 0 ? 1 : 0);
     }
 
     /**
@@ -57,17 +76,42 @@ public class UserAccess extends Users {
      * @return usersObservableList
      */
     public static ObservableList<UserAccess> getAllUsers() throws SQLException {
-        ObservableList<UserAccess> usersObservableList = FXCollections.observableArrayList();
-        String sql = "SELECT * from users";
-        PreparedStatement ps = JDBC.getConnection().prepareStatement(sql);
-        ResultSet rs = ps.executeQuery();
-        while (rs.next()) {
-            int userID = rs.getInt("User_ID");
-            String userName = rs.getString("User_Name");
-            String userPassword = rs.getString("Password");
-            UserAccess user = new UserAccess(userID, userName, userPassword);
-            usersObservableList.add(user);
-        }
-        return usersObservableList;
+        return FXCollections.observableArrayList(userCache.getAll());
+    }
+
+    /**
+     * Looks up a user by ID without querying the database.
+     * @throws SQLException
+     * @param userID
+     * @return the user, or null if there is none
+     */
+    public static UserAccess getUserById(int userID) throws SQLException {
+        return userCache.getById(userID);
+    }
+
+    /**
+     * Reloads the cached users from the database.
+     * @throws SQLException
+     */
+    public static void refreshCache() throws SQLException {
+        userCache.refresh();
+    }
+
+    /**
+     * Read every user from the database.
+     * @throws SQLException
+     * @return usersObservableList
+     */
+    private static List<UserAccess> loadUsers() throws SQLException {
+        return DaoMetrics.time("UserAccess.loadUsers", () -> {
+            ObservableList<UserAccess> usersObservableList = FXCollections.observableArrayList();
+            String sql = "SELECT * from users";
+            try (Connection connection = JDBC.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                RowMapper.mapAll(rs, RowMappers.users, usersObservableList);
+            }
+            return usersObservableList;
+        });
     }
 }
@@ -0,0 +1,14 @@
+-- Moves the appointment times of the client_schedule schema to UTC.
+-- Run once against the database, from a client whose session uses the server's time zone
+-- (the default), and before the first start of a version that stores Start and End in UTC.
+-- Earlier versions connected with connectionTimeZone=SERVER, so existing rows hold the
+-- server's wall-clock time. A named server zone needs the time zone tables loaded
+-- (mysql_tzinfo_to_sql) for CONVERT_TZ to return anything but NULL, so the check below
+-- comes first. Afterwards, run the application once with --rebuild-reports so the monthly
+-- totals follow the converted times.
+
+SELECT CONVERT_TZ('2024-01-01 12:00:00', @@global.time_zone, '+00:00') AS must_not_be_null;
+
+UPDATE appointments
+SET Start = CONVERT_TZ(Start, @@global.time_zone, '+00:00'),
+    End = CONVERT_TZ(End, @@global.time_zone, '+00:00');
@@ -0,0 +1,14 @@
+-- ID sequences for the client_schedule schema.
+-- Run once against the database. Helper.IdGenerator reserves blocks of primary keys from
+-- this table; Next_Value is the first ID that has not been handed out yet.
+
+CREATE TABLE IF NOT EXISTS id_sequences (
+    Sequence_Name VARCHAR(50) NOT NULL PRIMARY KEY,
+    Next_Value INT NOT NULL
+);
+
+-- Start each sequence after the rows that already exist. A missing row is also created on first use.
+INSERT IGNORE INTO id_sequences (Sequence_Name, Next_Value)
+    SELECT 'appointments', COALESCE(MAX(Appointment_ID), 0) + 1 FROM appointments;
+INSERT IGNORE INTO id_sequences (Sequence_Name, Next_Value)
+    SELECT 'customers', COALESCE(MAX(Customer_ID), 0) + 1 FROM customers;
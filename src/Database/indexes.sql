@@ -0,0 +1,19 @@
+-- Secondary indexes for the client_schedule schema.
+-- Run once against the database; the DAO range and lookup queries rely on them.
+
+-- Week/month views: AppointmentAccess.getAppointmentsBetween
+CREATE INDEX idx_appointments_start_end ON appointments (Start, End);
+
+-- Paged "All" view: AppointmentAccess.getAppointmentsPage (InnoDB appends Appointment_ID to the key)
+CREATE INDEX idx_appointments_start ON appointments (Start);
+
+-- Per-contact and per-customer windows: getContactAppointmentsBetween, getCustomerAppointmentsBetween,
+-- and the contact schedule report: getContactSchedule
+CREATE INDEX idx_appointments_contact_start ON appointments (Contact_ID, Start);
+CREATE INDEX idx_appointments_customer_start ON appointments (Customer_ID, Start);
+
+-- Appointment totals report: ReportAccess.getAppointmentTotalsByType (covering index for GROUP BY Type)
+CREATE INDEX idx_appointments_type ON appointments (Type);
+
+-- Login alert: AppointmentAccess.getUserAppointmentsStartingBetween
+CREATE INDEX idx_appointments_user_start ON appointments (User_ID, Start);
@@ -0,0 +1,12 @@
+-- Report totals for the client_schedule schema.
+-- Run once against the database. DAO.ReportSummaries keeps one row per report line here,
+-- adjusted by every appointment and customer write; the report tabs read these rows instead
+-- of grouping the appointments table. The table is filled on first use while it is empty,
+-- and can be rebuilt at any time with: java Main.Main --rebuild-reports
+
+CREATE TABLE IF NOT EXISTS report_totals (
+    Dimension VARCHAR(20) NOT NULL,
+    Item VARCHAR(50) NOT NULL,
+    Total INT NOT NULL,
+    PRIMARY KEY (Dimension, Item)
+);
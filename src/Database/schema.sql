@@ -0,0 +1,73 @@
+-- Tables of the client_schedule schema.
+-- Helper.EmbeddedDatabase runs this, then indexes.sql, id_sequences.sql and report_totals.sql, to build the
+-- in-memory database; it can also be run against an empty MySQL schema.
+
+CREATE TABLE IF NOT EXISTS countries (
+    Country_ID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Country VARCHAR(50),
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP,
+    Last_Updated_By VARCHAR(50)
+);
+
+CREATE TABLE IF NOT EXISTS first_level_divisions (
+    Division_ID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Division VARCHAR(50),
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP,
+    Last_Updated_By VARCHAR(50),
+    Country_ID INT NOT NULL,
+    FOREIGN KEY (Country_ID) REFERENCES countries (Country_ID)
+);
+
+CREATE TABLE IF NOT EXISTS customers (
+    Customer_ID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Customer_Name VARCHAR(50),
+    Address VARCHAR(100),
+    Postal_Code VARCHAR(50),
+    Phone VARCHAR(50),
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP,
+    Last_Updated_By VARCHAR(50),
+    Division_ID INT NOT NULL,
+    FOREIGN KEY (Division_ID) REFERENCES first_level_divisions (Division_ID)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    User_ID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    User_Name VARCHAR(50) UNIQUE,
+    Password TEXT,
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP,
+    Last_Updated_By VARCHAR(50)
+);
+
+CREATE TABLE IF NOT EXISTS contacts (
+    Contact_ID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Contact_Name VARCHAR(50),
+    Email VARCHAR(50)
+);
+
+CREATE TABLE IF NOT EXISTS appointments (
+    Appointment_ID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Title VARCHAR(50),
+    Description VARCHAR(50),
+    Location VARCHAR(50),
+    Type VARCHAR(50),
+    Start DATETIME,
+    End DATETIME,
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP,
+    Last_Updated_By VARCHAR(50),
+    Customer_ID INT NOT NULL,
+    User_ID INT NOT NULL,
+    Contact_ID INT NOT NULL,
+    FOREIGN KEY (Customer_ID) REFERENCES customers (Customer_ID),
+    FOREIGN KEY (User_ID) REFERENCES users (User_ID),
+    FOREIGN KEY (Contact_ID) REFERENCES contacts (Contact_ID)
+);
@@ -0,0 +1,271 @@
+package Helper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An append-only audit log that is written by a background thread.
+ * <p>
+ * Callers add lines to a lock-free queue and return immediately. A single writer thread
+ * drains the queue in batches into one {@link FileChannel} and forces the file to disk at
+ * most once per sync interval. The queue holds at most {@code capacity} lines; what
+ * happens when it is full is decided by the {@link OverflowPolicy}. Dropped lines are
+ * counted, and the count is written to the log so gaps are visible.
+ * </p>
+ * <p>
+ * Lines logged after {@link #close()} are appended to the file directly, on the caller's
+ * thread, so nothing logged during shutdown is lost.
+ * </p>
+ */
+public class AuditLog implements AutoCloseable {
+
+    /**
+     * What {@link #log(String)} does when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /** Discard the new line and count it as dropped. */
+        DROP,
+        /** Wait for the writer to make room. */
+        BLOCK
+    }
+
+    private static final String loginActivityFile = "login_activity.txt";
+    private static final int loginActivityCapacity = 10_000;       // Lines held in memory before the policy applies
+    private static final int loginActivityBatchSize = 256;         // Lines per write
+    private static final long loginActivityFlushMillis = 200;      // Longest a line waits in the queue
+    private static final long loginActivitySyncMillis = 1_000;     // Longest a written line waits for fsync
+    private static AuditLog loginActivity;
+
+    private static final long blockWaitNanos = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private long droppedReported;       // Dropped lines already noted in the file; only touched by the writer
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long syncIntervalNanos;
+    private final OverflowPolicy policy;
+    private final Thread writer;
+    private final AtomicInteger inFlight = new AtomicInteger();    // Callers between their closed check and their offer
+    private volatile boolean closed;
+
+    /**
+     * Opens the file for appending and starts the writer thread.
+     *
+     * @param file                The log file; it is created if it does not exist.
+     * @param capacity            Maximum number of lines waiting to be written.
+     * @param batchSize           Maximum number of lines per write.
+     * @param flushIntervalMillis Longest time a line waits in the queue when the log is quiet.
+     * @param syncIntervalMillis  Minimum time between forces to disk.
+     * @param policy              What to do when the queue is full.
+     * @throws IOException If the file cannot be opened.
+     */
+    public AuditLog(Path file, int capacity, int batchSize, long flushIntervalMillis, long syncIntervalMillis,
+                    OverflowPolicy policy) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+        this.policy = policy;
+        this.writer = new Thread(this::writeLoop, "audit-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Returns the log that records login attempts, opening it on first use.
+     * Login attempts are dropped rather than blocked when the queue is full, so a burst of
+     * attempts never slows down the login screen.
+     *
+     * @return The login activity log.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static synchronized AuditLog getLoginActivity() throws IOException {
+        if (loginActivity == null) {
+            loginActivity = new AuditLog(Path.of(loginActivityFile), loginActivityCapacity, loginActivityBatchSize,
+                    loginActivityFlushMillis, loginActivitySyncMillis, OverflowPolicy.DROP);
+        }
+        return loginActivity;
+    }
+
+    /**
+     * Flushes and closes the login activity log if it was opened.
+     */
+    public static synchronized void closeLoginActivity() {
+        if (loginActivity != null) {
+            loginActivity.close();
+            loginActivity = null;
+        }
+    }
+
+    /**
+     * Queues a line to be appended to the log, or appends it directly if the log is closed.
+     *
+     * @param line The line to write, without a line separator.
+     * @return true if the line was queued or written, false if it was dropped or could not
+     * be written.
+     */
+    public boolean log(String line) {
+        // Counted before the check, so close() waits for this line if it sees the log open
+        inFlight.incrementAndGet();
+        try {
+            if (closed) {
+                return appendNow(line);
+            }
+            while (true) {
+                int waiting = queued.get();
+                if (waiting < capacity) {
+                    if (queued.compareAndSet(waiting, waiting + 1)) {
+                        break;
+                    }
+                } else if (policy == OverflowPolicy.DROP) {
+                    dropped.incrementAndGet();
+                    return false;
+                } else {
+                    LockSupport.unpark(writer);
+                    LockSupport.parkNanos(this, blockWaitNanos);
+                }
+            }
+            queue.offer(line);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        if (queued.get() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    /**
+     * Returns how many lines have been dropped because the queue was full.
+     *
+     * @return The number of dropped lines.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops queueing lines, writes and syncs everything already queued, and closes the file.
+     * Waits for callers that are queueing a line, so their lines are written too.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        while (inFlight.get() > 0) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(this, blockWaitNanos);
+        }
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Appends one line to the file and syncs it, without the writer thread.
+     *
+     * @return true if the line was written.
+     */
+    private boolean appendNow(String line) {
+        ByteBuffer buffer = ByteBuffer.wrap((line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        try (FileChannel direct = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                direct.write(buffer);
+            }
+            direct.force(false);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Drains the queue until the log is closed and no caller is still queueing a line,
+     * forcing written lines to disk at most once per sync interval and once more before exiting.
+     */
+    private void writeLoop() {
+        long lastSync = System.nanoTime();
+        boolean unsynced = false;
+        while (true) {
+            boolean stopping = closed && inFlight.get() == 0;
+            while (writeBatch()) {
+                unsynced = true;
+            }
+            long now = System.nanoTime();
+            if (unsynced && (stopping || now - lastSync >= syncIntervalNanos)) {
+                try {
+                    channel.force(false);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                lastSync = now;
+                unsynced = false;
+            }
+            if (stopping) {
+                return;
+            }
+            LockSupport.parkNanos(this, unsynced ? Math.min(flushIntervalNanos, syncIntervalNanos) : flushIntervalNanos);
+        }
+    }
+
+    /**
+     * Writes up to one batch of queued lines, preceded by a note if lines were dropped.
+     *
+     * @return true if anything was written.
+     */
+    private boolean writeBatch() {
+        StringBuilder batch = new StringBuilder();
+        long droppedTotal = dropped.get();
+        if (droppedTotal > droppedReported) {
+            batch.append("audit log: ").append(droppedTotal - droppedReported).append(" entries dropped")
+                    .append(System.lineSeparator());
+            droppedReported = droppedTotal;
+        }
+        int lines = 0;
+        String line;
+        while (lines < batchSize && (line = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.append(line).append(System.lineSeparator());
+            lines++;
+        }
+        if (batch.length() == 0) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,199 @@
+package Helper;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Checks appointment times against the business hours: Monday to Friday, 8am to 10pm in
+ * {@link TimeUtility#businessZone}.
+ * <p>
+ * The opening and closing time of every day in a horizon of one year back and two years
+ * ahead are precomputed as UTC epoch seconds, with daylight saving time already applied, so
+ * checking an appointment is finding its day and two comparisons. Closed days open and close
+ * at {@code Long.MIN_VALUE}. The horizon slides forward when a later day is checked; earlier
+ * days outside it are computed when asked for. The class is thread-safe.
+ * </p>
+ */
+public class BusinessHours {
+    private static final int secondsPerDay = 86_400;
+    private static final int daysBefore = 366;
+    private static final int daysAfter = 2 * 366;
+    private static final BusinessHours standard = new BusinessHours(TimeUtility.business(),
+            LocalTime.of(8, 0), LocalTime.of(22, 0), EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+
+    private final ZoneConverter business;
+    private final int openSecond;
+    private final int closeSecond;
+    private final Set<DayOfWeek> days;
+    private volatile Table table;
+
+    /**
+     * Creates business hours for a zone.
+     *
+     * @param business The converter for the zone the hours are defined in.
+     * @param open     The opening time on each business day.
+     * @param close    The closing time, after {@code open} on the same day.
+     * @param days     The days of the week the business is open.
+     */
+    public BusinessHours(ZoneConverter business, LocalTime open, LocalTime close, Set<DayOfWeek> days) {
+        if (!close.isAfter(open)) {
+            throw new IllegalArgumentException("The closing time must be after the opening time.");
+        }
+        this.business = business;
+        this.openSecond = open.toSecondOfDay();
+        this.closeSecond = close.toSecondOfDay();
+        this.days = EnumSet.copyOf(days);
+        this.table = new Table(LocalDate.now(business.getZone()).toEpochDay() - daysBefore);
+    }
+
+    /**
+     * Returns the business hours the application enforces.
+     *
+     * @return Monday to Friday, 8am to 10pm Eastern time.
+     */
+    public static BusinessHours standard() {
+        return standard;
+    }
+
+    /**
+     * Returns true if the local range {@code [start, end)} lies within the opening hours of a
+     * single business day. The order of start and end is not checked.
+     *
+     * @param start The local start.
+     * @param end   The local end.
+     * @return true if the business is open for the whole range.
+     */
+    public boolean isOpen(LocalDateTime start, LocalDateTime end) {
+        ZoneConverter local = TimeUtility.local();
+        return isOpen(local.toUtcSeconds(start.toEpochSecond(ZoneOffset.UTC)), local.toUtcSeconds(end.toEpochSecond(ZoneOffset.UTC)));
+    }
+
+    /**
+     * Returns true if the range {@code [start, end)} lies within the opening hours of a single
+     * business day.
+     *
+     * @param start The start, in UTC epoch seconds.
+     * @param end   The end, in UTC epoch seconds.
+     * @return true if the business is open for the whole range.
+     */
+    public boolean isOpen(long start, long end) {
+        long day = dayOf(start);
+        Table current = tableFor(day);
+        int index = (int) (day - current.firstDay);
+        if (index >= 0 && index < current.opens.length) {
+            return current.opens[index] <= start && end <= current.closes[index];
+        }
+        return opensAt(day) <= start && end <= closesAt(day);
+    }
+
+    /**
+     * Returns true if the business day an instant falls on is a day of the week the business
+     * is open, whatever the time.
+     *
+     * @param local A local date and time.
+     * @return true if it falls on a business day.
+     */
+    public boolean isBusinessDay(LocalDateTime local) {
+        long day = dayOf(TimeUtility.local().toUtcSeconds(local.toEpochSecond(ZoneOffset.UTC)));
+        return days.contains(LocalDate.ofEpochDay(day).getDayOfWeek());
+    }
+
+    /**
+     * Checks many ranges at once, as {@link #isOpen(long, long)} does.
+     *
+     * @param starts The starts, in UTC epoch seconds.
+     * @param ends   The ends, in UTC epoch seconds; as long as {@code starts}.
+     * @return For each range, true if the business is open for all of it.
+     */
+    public boolean[] validateAll(long[] starts, long[] ends) {
+        if (starts.length != ends.length) {
+            throw new IllegalArgumentException("There are " + starts.length + " starts but " + ends.length + " ends.");
+        }
+        long[] localStarts = new long[starts.length];
+        business.fromUtcSeconds(starts, localStarts);
+        boolean[] open = new boolean[starts.length];
+        Table current = table;
+        for (int i = 0; i < starts.length; i++) {
+            long day = Math.floorDiv(localStarts[i], secondsPerDay);
+            int index = (int) (day - current.firstDay);
+            if (index < 0 || index >= current.opens.length) {
+                current = tableFor(day);
+                index = (int) (day - current.firstDay);
+            }
+            if (index >= 0 && index < current.opens.length) {
+                open[i] = current.opens[index] <= starts[i] && ends[i] <= current.closes[index];
+            } else {
+                open[i] = opensAt(day) <= starts[i] && ends[i] <= closesAt(day);
+            }
+        }
+        return open;
+    }
+
+    /**
+     * Returns the business day, as an epoch day in the business zone, that an instant falls on.
+     */
+    private long dayOf(long utcSeconds) {
+        return Math.floorDiv(business.fromUtcSeconds(utcSeconds), secondsPerDay);
+    }
+
+    /**
+     * Returns the table to look a day up in, sliding the horizon forward if the day is past it.
+     */
+    private Table tableFor(long day) {
+        Table current = table;
+        if (day >= current.firstDay + current.opens.length) {
+            synchronized (this) {
+                current = table;
+                if (day >= current.firstDay + current.opens.length) {
+                    current = new Table(day - daysBefore);
+                    table = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Returns when a business day opens, in UTC epoch seconds, or {@code Long.MIN_VALUE} if it is closed.
+     */
+    private long opensAt(long day) {
+        if (!days.contains(LocalDate.ofEpochDay(day).getDayOfWeek())) {
+            return Long.MIN_VALUE;
+        }
+        return business.toUtcSeconds(day * secondsPerDay + openSecond);
+    }
+
+    /**
+     * Returns when a business day closes, in UTC epoch seconds, or {@code Long.MIN_VALUE} if it is closed.
+     */
+    private long closesAt(long day) {
+        if (!days.contains(LocalDate.ofEpochDay(day).getDayOfWeek())) {
+            return Long.MIN_VALUE;
+        }
+        return business.toUtcSeconds(day * secondsPerDay + closeSecond);
+    }
+
+    /**
+     * The opening and closing times of consecutive days.
+     */
+    private class Table {
+        private final long firstDay;
+        private final long[] opens;
+        private final long[] closes;
+
+        private Table(long firstDay) {
+            this.firstDay = firstDay;
+            this.opens = new long[daysBefore + daysAfter];
+            this.closes = new long[daysBefore + daysAfter];
+            for (int i = 0; i < opens.length; i++) {
+                opens[i] = opensAt(firstDay + i);
+                closes[i] = closesAt(firstDay + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package Helper;
+
+import javafx.application.Platform;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Publishes single-row changes made through a DAO, so open views can patch the affected row
+ * instead of reloading everything.
+ * <p>
+ * Listeners are held weakly, like JavaFX's weak listeners: a controller keeps its listener
+ * in a field, and the subscription ends when the controller is garbage collected. Changes are
+ * delivered on the JavaFX Application Thread, whichever thread published them.
+ * </p>
+ *
+ * @param <T> The entity type.
+ */
+public class ChangeFeed<T> {
+
+    /**
+     * The kind of change made to a row.
+     */
+    public enum Kind {
+        ADDED,
+        UPDATED,
+        REMOVED
+    }
+
+    /**
+     * Receives changes on the JavaFX Application Thread.
+     *
+     * @param <T> The entity type.
+     */
+    @FunctionalInterface
+    public interface Listener<T> {
+        /**
+         * Called once per changed row.
+         *
+         * @param kind   What happened to the row.
+         * @param id     The row's ID.
+         * @param entity The row as written, or null if it was removed.
+         */
+        void changed(Kind kind, int id, T entity);
+    }
+
+    private final List<WeakReference<Listener<T>>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a listener. The caller must keep a strong reference to it for as long as it
+     * should receive changes.
+     *
+     * @param listener The listener to add.
+     */
+    public void subscribe(Listener<T> listener) {
+        listeners.add(new WeakReference<>(listener));
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void unsubscribe(Listener<T> listener) {
+        listeners.removeIf(reference -> reference.get() == null || reference.get() == listener);
+    }
+
+    /**
+     * Sends a change to every live listener.
+     *
+     * @param kind   What happened to the row.
+     * @param id     The row's ID.
+     * @param entity The row as written, or null if it was removed.
+     */
+    public void publish(Kind kind, int id, T entity) {
+        listeners.removeIf(reference -> reference.get() == null);
+        if (listeners.isEmpty()) {
+            return;
+        }
+        if (Platform.isFxApplicationThread()) {
+            deliver(kind, id, entity);
+        } else {
+            Platform.runLater(() -> deliver(kind, id, entity));
+        }
+    }
+
+    private void deliver(Kind kind, int id, T entity) {
+        for (WeakReference<Listener<T>> reference : listeners) {
+            Listener<T> listener = reference.get();
+            if (listener != null) {
+                listener.changed(kind, id, entity);
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package Helper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of physical database connections.
+ * <p>
+ * Connections are handed out as proxies: calling {@code close()} on a borrowed connection
+ * returns it to the pool instead of closing the socket, so callers can borrow with
+ * try-with-resources. Idle connections are validated before being handed out and are
+ * evicted once they have been idle longer than the configured timeout, never dropping
+ * the pool below its minimum size. The time every borrower waits, including validation and
+ * opening new connections, is recorded in {@link #getBorrowWait()}.
+ * </p>
+ */
+public class ConnectionPool {
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>(); // Most recently used first
+    private final Semaphore permits;                                                         // One permit per connection that may be lent out
+    private final AtomicInteger totalConnections = new AtomicInteger();                      // Idle plus borrowed
+    private final LatencyHistogram borrowWait = new LatencyHistogram();                      // Time from borrow() to a usable connection
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a pool without connecting. The minimum number of connections is opened on the
+     * evictor thread, and topped up again on each eviction pass, so a slow or unreachable
+     * database never holds up the caller; it is reported by {@link #borrow()} instead.
+     *
+     * @param url                      JDBC URL of the database.
+     * @param username                 Database user.
+     * @param password                 Database password.
+     * @param minSize                  Connections kept open even when idle.
+     * @param maxSize                  Upper bound on open connections.
+     * @param idleTimeoutMillis        Idle time after which a connection above the minimum is closed.
+     * @param borrowTimeoutMillis      How long a borrower waits for a free connection.
+     * @param validationTimeoutSeconds Timeout passed to {@link Connection#isValid(int)} on borrow.
+     * @param statementCacheSize       Prepared statements cached per connection; 0 disables caching.
+     */
+    public ConnectionPool(String url, String username, String password, int minSize, int maxSize,
+                          long idleTimeoutMillis, long borrowTimeoutMillis, int validationTimeoutSeconds,
+                          int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none is idle and the
+     * pool is below its maximum size. The returned connection goes back to the pool
+     * when it is closed.
+     *
+     * @return A validated connection.
+     * @throws SQLException if the pool is closed, no connection frees up in time, or opening one fails.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        long started = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    borrowWait.record(System.nanoTime() - started);
+                    return pooled.lend();
+                }
+                discard(pooled);
+            }
+            Connection opened = openPhysical().lend();
+            borrowWait.record(System.nanoTime() - started);
+            return opened;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of connections currently open, idle or borrowed.
+     *
+     * @return The number of open connections.
+     */
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    /**
+     * Returns how long borrowers have waited for a connection, including validating an idle
+     * one or opening a new one. Borrows that fail are not recorded.
+     *
+     * @return The borrow wait histogram.
+     */
+    public LatencyHistogram getBorrowWait() {
+        return borrowWait;
+    }
+
+    /**
+     * Returns the number of connections currently idle in the pool.
+     *
+     * @return The number of idle connections.
+     */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /**
+     * Closes every idle connection and stops the evictor. Connections still borrowed
+     * are closed when they are returned.
+     */
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    /**
+     * Opens a new physical connection and counts it against the pool.
+     */
+    private PooledConnection openPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, username, password);
+        totalConnections.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    /**
+     * Validates an idle connection before it is lent out.
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes a physical connection and its cached statements, and removes it from the pool's count.
+     */
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        pooled.statements.close();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Takes a connection back from a borrower, resetting any transaction state it left behind.
+     */
+    private void giveBack(PooledConnection pooled) {
+        try {
+            if (closed || pooled.physical.isClosed()) {
+                discard(pooled);
+                return;
+            }
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes idle connections that have not been used within the idle timeout, keeping at
+     * least the minimum number open, and opens connections up to the minimum.
+     */
+    private void evictIdle() {
+        try {
+            while (!closed && totalConnections.get() < minSize) {
+                PooledConnection opened = openPhysical();
+                if (closed) {
+                    discard(opened);    // close() has already emptied the idle list
+                    return;
+                }
+                idle.offerLast(opened);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();    // Borrowers open their own connections until the database is back
+        }
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext() && totalConnections.get() > minSize) {
+            PooledConnection pooled = oldestFirst.next();
+            if (pooled.lastUsed < cutoff && idle.remove(pooled)) {
+                discard(pooled);
+            }
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool together with its statement cache and bookkeeping.
+     */
+    private class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = new StatementCache(physical, statementCacheSize);
+        }
+
+        /**
+         * Wraps the physical connection in a proxy whose {@code close()} returns it to the pool.
+         */
+        private Connection lend() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LentConnectionHandler(this));
+        }
+    }
+
+    /**
+     * Forwards calls to the physical connection until the borrower closes it.
+     * Single-argument {@code prepareStatement} calls are served from the connection's statement cache.
+     */
+    private class LentConnectionHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned = false;
+
+        private LentConnectionHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        giveBack(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.physical;
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            if (method.getName().equals("prepareStatement") && args.length == 1) {
+                return pooled.statements.prepare((String) args[0], (Connection) proxy);
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
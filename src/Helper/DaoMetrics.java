@@ -0,0 +1,335 @@
+package Helper;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Times every DAO call and publishes the results, so slow paths can be found on a clerk's
+ * workstation without attaching a profiler.
+ * <p>
+ * Each DAO method wraps its database work in {@link #time(String, Call)}, which records the
+ * call's latency, the number of rows it returned or changed, and whether it failed. Every
+ * method gets an MXBean named {@code AppointmentScheduler:type=DaoMethod,name=<method>} on the
+ * platform MBean server, and the connection pool gets
+ * {@code AppointmentScheduler:type=ConnectionPool} with the time spent waiting for a
+ * connection. While {@link #start()} is in effect, a summary of the last interval is also
+ * appended to {@code dao_metrics.txt} once a minute, one line per method that was called.
+ * </p>
+ */
+public class DaoMetrics {
+
+    /**
+     * The database work of a DAO method.
+     *
+     * @param <T> The type of the method's result.
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        T run() throws SQLException;
+    }
+
+    /**
+     * The statistics of one DAO method since the application started. Times are in milliseconds.
+     */
+    public interface MethodStatsMXBean {
+        long getCalls();
+
+        long getErrors();
+
+        long getRows();
+
+        double getMeanMillis();
+
+        double getP50Millis();
+
+        double getP99Millis();
+
+        double getMaxMillis();
+    }
+
+    /**
+     * The statistics of the connection pool since it started. Times are in milliseconds.
+     */
+    public interface PoolStatsMXBean {
+        long getBorrows();
+
+        double getBorrowWaitP50Millis();
+
+        double getBorrowWaitP99Millis();
+
+        double getBorrowWaitMaxMillis();
+
+        int getTotalConnections();
+
+        int getIdleConnections();
+    }
+
+    private static final String domain = "AppointmentScheduler";
+    private static final String summaryFile = "dao_metrics.txt";
+    private static final long summaryIntervalSeconds = 60;
+    private static final Map<String, MethodStats> methods = new ConcurrentHashMap<>();
+    private static final PoolStats pool = new PoolStats();
+    private static final String host = hostName();
+    private static ScheduledExecutorService reporter;
+    private static AuditLog summaryLog;
+
+    static {
+        register("type=ConnectionPool", pool);
+    }
+
+    /**
+     * Runs a DAO method's database work and records it. The row count is the size of the
+     * result if it is a collection, otherwise 1 for a result and 0 for null.
+     *
+     * @param method The name the call is reported under, such as {@code AppointmentAccess.getAllAppointments}.
+     * @param call   The work to run.
+     * @param <T>    The type of the result.
+     * @return What the call returned.
+     * @throws SQLException What the call threw; it is counted as an error.
+     */
+    public static <T> T time(String method, Call<T> call) throws SQLException {
+        return time(method, call, DaoMetrics::defaultRows);
+    }
+
+    /**
+     * Runs a DAO method's database work and records it, counting rows with the given function.
+     *
+     * @param method The name the call is reported under.
+     * @param call   The work to run.
+     * @param rows   Returns the number of rows read or changed, given the result.
+     * @param <T>    The type of the result.
+     * @return What the call returned.
+     * @throws SQLException What the call threw; it is counted as an error.
+     */
+    public static <T> T time(String method, Call<T> call, ToIntFunction<T> rows) throws SQLException {
+        MethodStats stats = methods.computeIfAbsent(method, DaoMetrics::newMethodStats);
+        long started = System.nanoTime();
+        try {
+            T result = call.run();
+            stats.latency.record(System.nanoTime() - started);
+            stats.rows.add(rows.applyAsInt(result));
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            stats.latency.record(System.nanoTime() - started);
+            stats.errors.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts appending a summary to {@code dao_metrics.txt} once a minute.
+     * Calling this more than once has no effect.
+     */
+    public static synchronized void start() {
+        if (reporter != null) {
+            return;
+        }
+        try {
+            summaryLog = new AuditLog(Path.of(summaryFile), 1_000, 256, 1_000, 5_000, AuditLog.OverflowPolicy.DROP);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dao-metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(DaoMetrics::writeSummary, summaryIntervalSeconds, summaryIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Writes a last summary, stops the periodic summaries and closes the summary file.
+     */
+    public static synchronized void stop() {
+        if (reporter == null) {
+            return;
+        }
+        reporter.shutdownNow();
+        try {
+            reporter.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeSummary();
+        summaryLog.close();
+        reporter = null;
+        summaryLog = null;
+    }
+
+    /**
+     * Appends one line per method called since the last summary, and one for the connection pool.
+     */
+    private static synchronized void writeSummary() {
+        String prefix = LocalDateTime.now().withNano(0) + " " + host + " ";
+        for (Map.Entry<String, MethodStats> entry : new TreeMap<>(methods).entrySet()) {
+            MethodStats stats = entry.getValue();
+            LatencyHistogram.Snapshot current = stats.latency.snapshot();
+            LatencyHistogram.Snapshot interval = current.since(stats.lastReported);
+            long errors = stats.errors.sum();
+            long rows = stats.rows.sum();
+            if (interval.getCount() > 0) {
+                summaryLog.log(prefix + entry.getKey() + " calls=" + interval.getCount()
+                        + " errors=" + (errors - stats.lastReportedErrors) + " rows=" + (rows - stats.lastReportedRows)
+                        + formatLatency(interval));
+            }
+            stats.lastReported = current;
+            stats.lastReportedErrors = errors;
+            stats.lastReportedRows = rows;
+        }
+        ConnectionPool current = JDBC.getPool();
+        if (current != null) {
+            LatencyHistogram.Snapshot snapshot = current.getBorrowWait().snapshot();
+            LatencyHistogram.Snapshot interval = snapshot.since(current == pool.lastReportedPool ? pool.lastReported : null);
+            summaryLog.log(prefix + "ConnectionPool borrows=" + interval.getCount() + formatLatency(interval)
+                    + " open=" + current.getTotalConnections() + " idle=" + current.getIdleConnections());
+            pool.lastReportedPool = current;
+            pool.lastReported = snapshot;
+        }
+    }
+
+    private static String formatLatency(LatencyHistogram.Snapshot snapshot) {
+        return String.format(" p50=%.1fms p99=%.1fms max=%.1fms", millis(snapshot.getPercentile(0.5)),
+                millis(snapshot.getPercentile(0.99)), millis(snapshot.getMax()));
+    }
+
+    private static int defaultRows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        return result == null ? 0 : 1;
+    }
+
+    private static MethodStats newMethodStats(String method) {
+        MethodStats stats = new MethodStats();
+        register("type=DaoMethod,name=" + ObjectName.quote(method), stats);
+        return stats;
+    }
+
+    private static void register(String properties, Object bean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(domain + ":" + properties);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(bean, name);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static double millis(double nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+
+    private static class MethodStats implements MethodStatsMXBean {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private LatencyHistogram.Snapshot lastReported;      // Only touched while writing a summary
+        private long lastReportedErrors;
+        private long lastReportedRows;
+
+        @Override
+        public long getCalls() {
+            return latency.snapshot().getCount();
+        }
+
+        @Override
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        @Override
+        public long getRows() {
+            return rows.sum();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return millis(latency.snapshot().getMean());
+        }
+
+        @Override
+        public double getP50Millis() {
+            return millis(latency.snapshot().getPercentile(0.5));
+        }
+
+        @Override
+        public double getP99Millis() {
+            return millis(latency.snapshot().getPercentile(0.99));
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return millis(latency.snapshot().getMax());
+        }
+    }
+
+    private static class PoolStats implements PoolStatsMXBean {
+        private ConnectionPool lastReportedPool;            // Only touched while writing a summary
+        private LatencyHistogram.Snapshot lastReported;
+
+        @Override
+        public long getBorrows() {
+            return borrowWait().getCount();
+        }
+
+        @Override
+        public double getBorrowWaitP50Millis() {
+            return millis(borrowWait().getPercentile(0.5));
+        }
+
+        @Override
+        public double getBorrowWaitP99Millis() {
+            return millis(borrowWait().getPercentile(0.99));
+        }
+
+        @Override
+        public double getBorrowWaitMaxMillis() {
+            return millis(borrowWait().getMax());
+        }
+
+        @Override
+        public int getTotalConnections() {
+            ConnectionPool current = JDBC.getPool();
+            return current == null ? 0 : current.getTotalConnections();
+        }
+
+        @Override
+        public int getIdleConnections() {
+            ConnectionPool current = JDBC.getPool();
+            return current == null ? 0 : current.getIdleConnections();
+        }
+
+        private LatencyHistogram.Snapshot borrowWait() {
+            ConnectionPool current = JDBC.getPool();
+            return (current == null ? new LatencyHistogram() : current.getBorrowWait()).snapshot();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package Helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32;
+
+/**
+ * Builds the client_schedule schema in an empty database and fills it with generated data.
+ * <p>
+ * Used by the {@code memory} profile of {@link JDBC}, which runs against an in-memory H2
+ * database in MySQL mode, so the DAO layer can be exercised without a MySQL server. The tables,
+ * indexes, ID sequences and report totals come from the scripts in {@code Database/}. The
+ * reference data matches the sample database: the users {@code test} and {@code admin}
+ * (passwords equal to the names), three contacts, and a few countries and divisions.
+ * Customers and appointments are generated from a seed, so the same settings always produce
+ * the same rows.
+ * </p>
+ */
+public class EmbeddedDatabase {
+    private static final String schemaScript = "/Database/schema.sql";
+    private static final String[] afterLoadScripts = {"/Database/indexes.sql", "/Database/id_sequences.sql", "/Database/report_totals.sql"};   // Run once the rows are in
+    private static final String[] types = {"Planning Session", "De-Briefing", "Follow-up", "Consultation", "Review", "Training"};
+    private static final String[] locations = {"Phoenix, Arizona", "White Plains, New York", "Montreal, Canada", "London, England"};
+    private static final int[] divisionIDs = {2, 29, 31, 44, 60, 67, 101, 103};
+    private static final LocalDate firstDay = LocalDate.of(2023, 1, 2);
+    private static final int days = 2 * 365;
+    private static final int batchSize = 1000;
+
+    /**
+     * Creates the schema and inserts the reference data plus the requested number of
+     * customers and appointments. Appointments fall on weekdays between 8am and 10pm Eastern
+     * time and last 15 minutes to 2 hours; like every stored appointment time, they are saved in UTC.
+     *
+     * @param connection   A connection to an empty database.
+     * @param customers    How many customers to generate.
+     * @param appointments How many appointments to generate, spread over the customers; none if there are no customers.
+     * @param seed         The seed that determines the generated rows.
+     * @throws SQLException If a script or insert fails.
+     */
+    public static void create(Connection connection, int customers, int appointments, long seed) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            defineMySqlFunctions(connection);
+            runScript(connection, schemaScript);
+            insertReferenceData(connection);
+            insertCustomers(connection, customers, new SplittableRandom(seed));
+            if (customers > 0) {
+                insertAppointments(connection, appointments, customers, new SplittableRandom(seed + 1));
+            }
+            for (String script : afterLoadScripts) {
+                runScript(connection, script);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Defines the MySQL functions the DAO layer uses that H2 lacks.
+     */
+    private static void defineMySqlFunctions(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE ALIAS IF NOT EXISTS CRC32 FOR 'Helper.EmbeddedDatabase.crc32'");
+        }
+    }
+
+    /**
+     * MySQL's CRC32(): the checksum of the UTF-8 bytes of a string, or null for null.
+     */
+    public static Long crc32(String value) {
+        if (value == null) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(value.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * Runs every statement of a SQL script on the class path. Lines starting with {@code --}
+     * are ignored and statements end with a semicolon.
+     */
+    private static void runScript(Connection connection, String resource) throws SQLException {
+        String script;
+        try (InputStream in = EmbeddedDatabase.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new SQLException("Script not found on the class path: " + resource);
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Cannot read script " + resource, e);
+        }
+        StringBuilder sql = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            if (!line.trim().startsWith("--")) {
+                sql.append(line).append('\n');
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String part : sql.toString().split(";")) {
+                if (!part.isBlank()) {
+                    statement.execute(part);
+                }
+            }
+        }
+    }
+
+    private static void insertReferenceData(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO countries (Country_ID, Country, Create_Date, Created_By, Last_Update, Last_Updated_By) VALUES "
+                    + "(1, 'U.S', NOW(), 'script', NOW(), 'script'), (2, 'UK', NOW(), 'script', NOW(), 'script'), "
+                    + "(3, 'Canada', NOW(), 'script', NOW(), 'script')");
+            statement.execute("INSERT INTO first_level_divisions (Division_ID, Division, Create_Date, Created_By, Last_Update, Last_Updated_By, Country_ID) VALUES "
+                    + "(2, 'Arizona', NOW(), 'script', NOW(), 'script', 1), (29, 'New York', NOW(), 'script', NOW(), 'script', 1), "
+                    + "(31, 'Ohio', NOW(), 'script', NOW(), 'script', 1), (44, 'Texas', NOW(), 'script', NOW(), 'script', 1), "
+                    + "(60, 'Northwest Territories', NOW(), 'script', NOW(), 'script', 3), (67, 'Ontario', NOW(), 'script', NOW(), 'script', 3), "
+                    + "(101, 'England', NOW(), 'script', NOW(), 'script', 2), (103, 'Scotland', NOW(), 'script', NOW(), 'script', 2)");
+            statement.execute("INSERT INTO users (User_ID, User_Name, Password, Create_Date, Created_By, Last_Update, Last_Updated_By) VALUES "
+                    + "(1, 'test', 'test', NOW(), 'script', NOW(), 'script'), (2, 'admin', 'admin', NOW(), 'script', NOW(), 'script')");
+            statement.execute("INSERT INTO contacts (Contact_ID, Contact_Name, Email) VALUES "
+                    + "(1, 'Anika Costa', 'acosta@company.com'), (2, 'Daniel Garcia', 'dgarcia@company.com'), "
+                    + "(3, 'Li Lee', 'llee@company.com')");
+        }
+    }
+
+    private static void insertCustomers(Connection connection, int customers, SplittableRandom random) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = "INSERT INTO customers (Customer_ID, Customer_Name, Address, Postal_Code, Phone, Create_Date, Created_By, Last_Update, Last_Updated_By, Division_ID) VALUES (?,?,?,?,?,?,?,?,?,?)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int id = 1; id <= customers; id++) {
+                ps.setInt(1, id);
+                ps.setString(2, "Customer " + id);
+                ps.setString(3, (1 + random.nextInt(9999)) + " Main Street");
+                ps.setString(4, String.format("%05d", random.nextInt(100000)));
+                ps.setString(5, String.format("%03d-%03d-%04d", random.nextInt(1000), random.nextInt(1000), random.nextInt(10000)));
+                ps.setTimestamp(6, now);
+                ps.setString(7, "script");
+                ps.setTimestamp(8, now);
+                ps.setString(9, "script");
+                ps.setInt(10, divisionIDs[random.nextInt(divisionIDs.length)]);
+                ps.addBatch();
+                if (id % batchSize == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void insertAppointments(Connection connection, int appointments, int customers, SplittableRandom random) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = "INSERT INTO appointments (Appointment_ID, Title, Description, Location, Type, Start, End, Create_Date, Created_By, Last_Update, Last_Updated_By, Customer_ID, User_ID, Contact_ID) VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int id = 1; id <= appointments; id++) {
+                LocalDate day = firstDay.plusDays(random.nextInt(days));
+                while (day.getDayOfWeek().getValue() > 5) {
+                    day = day.plusDays(1);
+                }
+                LocalDateTime start = LocalDateTime.of(day, LocalTime.of(8, 0)).plusMinutes(15L * random.nextInt(48));
+                LocalDateTime end = start.plusMinutes(15L * (1 + random.nextInt(8)));
+                ps.setInt(1, id);
+                ps.setString(2, "Appointment " + id);
+                ps.setString(3, "Generated appointment");
+                ps.setString(4, locations[random.nextInt(locations.length)]);
+                ps.setString(5, types[random.nextInt(types.length)]);
+                ps.setObject(6, TimeUtility.business().toUtc(start));
+                ps.setObject(7, TimeUtility.business().toUtc(end));
+                ps.setTimestamp(8, now);
+                ps.setString(9, "script");
+                ps.setTimestamp(10, now);
+                ps.setString(11, "script");
+                ps.setInt(12, 1 + random.nextInt(customers));
+                ps.setInt(13, 1 + random.nextInt(2));
+                ps.setInt(14, 1 + random.nextInt(3));
+                ps.addBatch();
+                if (id % batchSize == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+}
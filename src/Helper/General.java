@@ -72,6 +72,24 @@ public class General {
         }
     }
 
+    private static Scene mainScene;     // Kept so its tables stay loaded and are patched by change events
+
+    /**
+     * Shows the main screen. It is loaded the first time and reused afterwards, so returning
+     * from another screen does not reload its appointments and customers.
+     *
+     * @throws IOException if the FXML file cannot be loaded.
+     */
+    public static void showMainScreen() throws IOException {
+        if (mainScene == null) {
+            mainScene = new Scene(FXMLLoader.load(General.class.getResource("../View/MainScreen.fxml")));
+        }
+        Stage stage = StageManager.getInstance().getPrimaryStage();
+        stage.setScene(mainScene);
+        stage.centerOnScreen();
+        stage.show();
+    }
+
     /**
      * Transitions the primary stage to a new scene.
      *
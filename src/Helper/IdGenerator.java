@@ -0,0 +1,151 @@
+package Helper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out primary keys for one table from blocks reserved in the {@code id_sequences} table.
+ * <p>
+ * Each reservation advances the sequence's stored high-water mark by the block size in a
+ * single short transaction, so every process gets a disjoint range of IDs. IDs within the
+ * current block are handed out without locking; only the thread that finds the block
+ * exhausted goes back to the database. IDs left in a block when the application exits are
+ * never reused, which leaves harmless gaps.
+ * </p>
+ * <p>
+ * If the sequence has no row yet, one is created starting after the largest ID already in
+ * the table.
+ * </p>
+ */
+public class IdGenerator {
+    private final String sequenceName;
+    private final String tableName;
+    private final String idColumn;
+    private final int blockSize;
+    private final Object reserveLock = new Object();
+    private volatile Block block = new Block(0, 0);
+
+    /**
+     * Creates a generator. Nothing is reserved until the first ID is requested.
+     *
+     * @param sequenceName The row in {@code id_sequences} that tracks the high-water mark.
+     * @param tableName    The table the IDs are used in; read only to seed a missing sequence.
+     * @param idColumn     The table's ID column; read only to seed a missing sequence.
+     * @param blockSize    How many IDs to reserve per database round-trip.
+     */
+    public IdGenerator(String sequenceName, String tableName, String idColumn, int blockSize) {
+        this.sequenceName = sequenceName;
+        this.tableName = tableName;
+        this.idColumn = idColumn;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Returns an ID that no other caller, in this or any other process, has been given.
+     *
+     * @return The next ID.
+     * @throws SQLException If a new block is needed and cannot be reserved.
+     */
+    public int next() throws SQLException {
+        while (true) {
+            Block current = block;
+            int id = current.next.getAndIncrement();
+            if (id < current.limit) {
+                return id;
+            }
+            synchronized (reserveLock) {
+                if (block == current) {
+                    int first = reserve(blockSize);
+                    block = new Block(first, first + blockSize);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserves a contiguous range of IDs in one round-trip, for callers that insert many rows
+     * at once. The range is separate from the block used by {@link #next()}.
+     *
+     * @param count How many IDs to reserve.
+     * @return The first ID of the range {@code [first, first + count)}.
+     * @throws SQLException If the range cannot be reserved.
+     */
+    public int nextRange(int count) throws SQLException {
+        return reserve(count);
+    }
+
+    /**
+     * Advances the stored high-water mark by {@code count} and returns the first ID reserved.
+     */
+    private int reserve(int count) throws SQLException {
+        try (Connection connection = JDBC.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                Integer first = lockNextValue(connection);
+                if (first == null) {
+                    seed(connection);
+                    first = lockNextValue(connection);
+                }
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "UPDATE id_sequences SET Next_Value = ? WHERE Sequence_Name = ?")) {
+                    ps.setInt(1, first + count);
+                    ps.setString(2, sequenceName);
+                    ps.executeUpdate();
+                }
+                connection.commit();
+                return first;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Reads the sequence's next value and locks its row until the transaction ends.
+     *
+     * @return The next value, or null if the sequence has no row.
+     */
+    private Integer lockNextValue(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT Next_Value FROM id_sequences WHERE Sequence_Name = ? FOR UPDATE")) {
+            ps.setString(1, sequenceName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt("Next_Value") : null;
+            }
+        }
+    }
+
+    /**
+     * Creates the sequence's row, starting after the largest ID in the table. If another
+     * process creates it first, that row is kept.
+     */
+    private void seed(Connection connection) throws SQLException {
+        String sql = "INSERT INTO id_sequences (Sequence_Name, Next_Value) SELECT ?, COALESCE(MAX(" + idColumn + "), 0) + 1 FROM " + tableName;
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, sequenceName);
+            ps.executeUpdate();
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // Another process seeded the sequence first; its row is used instead
+        }
+    }
+
+    /**
+     * A reserved range of IDs, {@code [next, limit)}.
+     */
+    private static class Block {
+        private final AtomicInteger next;
+        private final int limit;
+
+        private Block(int first, int limit) {
+            this.next = new AtomicInteger(first);
+            this.limit = limit;
+        }
+    }
+}
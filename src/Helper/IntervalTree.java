@@ -0,0 +1,194 @@
+package Helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An augmented interval tree over half-open {@code [start, end)} intervals.
+ * <p>
+ * The tree is a treap ordered by start and then by a caller-supplied ID, so intervals with the
+ * same bounds can coexist. Every node also stores the largest end in its subtree, which lets
+ * overlap queries skip whole subtrees: finding the {@code k} intervals that overlap a range
+ * takes expected {@code O(log n + k)} time.
+ * </p>
+ *
+ * @param <T> The value stored with each interval.
+ */
+public class IntervalTree<T> {
+    private Node<T> root;
+    private int size;
+
+    /**
+     * Adds an interval to the tree.
+     *
+     * @param start The inclusive start of the interval.
+     * @param end   The exclusive end of the interval.
+     * @param id    An ID that distinguishes intervals with the same start.
+     * @param value The value stored with the interval.
+     */
+    public void insert(long start, long end, long id, T value) {
+        root = insert(root, new Node<>(start, end, id, value));
+        size++;
+    }
+
+    /**
+     * Removes the interval with the given start and ID.
+     *
+     * @param start The start the interval was inserted with.
+     * @param id    The ID the interval was inserted with.
+     * @return true if an interval was removed.
+     */
+    public boolean remove(long start, long id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    /**
+     * Returns the values of every interval that overlaps {@code [start, end)}.
+     *
+     * @param start The inclusive start of the range.
+     * @param end   The exclusive end of the range.
+     * @return The overlapping values, ordered by start.
+     */
+    public List<T> findOverlapping(long start, long end) {
+        List<T> found = new ArrayList<>();
+        collect(root, start, end, found);
+        return found;
+    }
+
+    /**
+     * Returns the number of intervals in the tree.
+     *
+     * @return The interval count.
+     */
+    public int size() {
+        return size;
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node<T> remove(Node<T> node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Joins two subtrees where every key on the left precedes every key on the right.
+     */
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private void collect(Node<T> node, long start, long end, List<T> found) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, found);
+        if (node.start >= end) {
+            return; // This node and everything to its right start too late
+        }
+        if (node.end > start) {
+            found.add(node.value);
+        }
+        collect(node.right, start, end, found);
+    }
+
+    private int compare(long start, long id, Node<T> node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * A single interval together with the largest end found in its subtree.
+     */
+    private static class Node<T> {
+        private final long start;
+        private final long end;
+        private final long id;
+        private final T value;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private long maxEnd;
+        private Node<T> left;
+        private Node<T> right;
+
+        private Node(long start, long end, long id, T value) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+            this.maxEnd = end;
+        }
+
+        private void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd > maxEnd) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > maxEnd) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
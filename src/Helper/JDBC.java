@@ -1,82 +1,180 @@
 package Helper;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 
 /**
  * JDBC Helper class provides utility methods to manage database connectivity.
  * It abstracts database initialization, connection establishment, and disconnection.
+ * <p>
+ * Connections are served from a shared {@link ConnectionPool}. Callers borrow one with
+ * {@link #getConnection()} and return it by closing it, typically with try-with-resources.
+ * Each pooled connection caches its prepared statements by SQL text, so statements should
+ * also be closed rather than kept around.
+ * </p>
+ * <p>
+ * The database is chosen with system properties, read when the pool starts:
+ * </p>
+ * <ul>
+ *     <li>{@code scheduler.db.profile}: {@code mysql} (the default) for the client_schedule
+ *     MySQL server, or {@code memory} for an in-memory H2 database in MySQL mode that is
+ *     created and seeded by {@link EmbeddedDatabase} on start.</li>
+ *     <li>{@code scheduler.db.url}, {@code scheduler.db.driver}, {@code scheduler.db.user} and
+ *     {@code scheduler.db.password}: override the profile's connection settings.</li>
+ *     <li>{@code scheduler.db.seed.customers}, {@code scheduler.db.seed.appointments} and
+ *     {@code scheduler.db.seed}: the amount of generated data and its random seed in the
+ *     {@code memory} profile; 100, 1000 and 1 by default.</li>
+ * </ul>
  */
 public class JDBC {
-    private static PreparedStatement preparedStatement;
+
+    /**
+     * Database work that runs on a given connection.
+     *
+     * @param <T> The type of the work's result.
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run(Connection connection) throws SQLException;
+    }
 
     private static final String protocol = "jdbc";
     private static final String vendorName = ":mysql:";
     private static final String ipAddress = "//127.0.0.1:3306/client_schedule";
-    private static final String jdbcURL = protocol + vendorName + ipAddress + "?connectionTimeZone=SERVER";
+    // Start and End are converted to UTC by the DAO layer and bound as LocalDateTime, which the
+    // driver sends unchanged; the session runs in UTC so the server's own clock agrees with them
+    private static final String jdbcURL = protocol + vendorName + ipAddress + "?connectionTimeZone=UTC&forceConnectionTimeZoneToSession=true&rewriteBatchedStatements=true";
     private static final String MYSQLJDBCDriver = "com.mysql.cj.jdbc.Driver";
-    public static Connection connection = null;
     private static final String username = "sqlUser";
     private static final String password = "Passw0rd!";
 
+    private static final String memoryProfile = "memory";
+    private static final String memoryJdbcURL = "jdbc:h2:mem:client_schedule;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=END,MONTH,VALUE";
+    private static final String H2JDBCDriver = "org.h2.Driver";
+    private static final String memoryUsername = "sa";
+    private static final String memoryPassword = "";
+
+    private static final int poolMinSize = 2;                             // Connections kept open while idle
+    private static final int poolMaxSize = 10;                            // Upper bound on open connections
+    private static final long poolIdleTimeoutMillis = 5 * 60 * 1000L;     // Idle time before a spare connection is closed
+    private static final long poolBorrowTimeoutMillis = 10 * 1000L;       // Wait for a free connection before failing
+    private static final int poolValidationTimeoutSeconds = 2;            // Timeout of the validation check on borrow
+    private static final int statementCacheSize = 32;                     // Prepared statements cached per connection
+    private static volatile ConnectionPool pool;
+    private static boolean memoryDatabaseCreated;                         // The in-memory database outlives the pool, so it is seeded once
+
     /**
-     * Initializes a database connection and returns it.
+     * Initializes the connection pool if it has not been started yet.
+     * Calling this more than once has no effect. The pool does not connect here, so it does not
+     * wait or fail if the database is unreachable; its minimum connections are opened in the
+     * background, and further ones when they are borrowed.
      *
-     * @return Connection object to the database.
+     * @throws SQLException if the driver cannot be loaded or the in-memory database cannot be created.
      */
-    public static Connection startConnection() {
+    public static synchronized void startConnection() throws SQLException {
+        if (pool != null) {
+            return;
+        }
+        boolean memory = memoryProfile.equals(System.getProperty("scheduler.db.profile", "mysql"));
+        String url = System.getProperty("scheduler.db.url", memory ? memoryJdbcURL : jdbcURL);
+        String driver = System.getProperty("scheduler.db.driver", memory ? H2JDBCDriver : MYSQLJDBCDriver);
+        String user = System.getProperty("scheduler.db.user", memory ? memoryUsername : username);
+        String secret = System.getProperty("scheduler.db.password", memory ? memoryPassword : password);
         try {
-            Class.forName(MYSQLJDBCDriver);
-            connection = (Connection) DriverManager.getConnection(jdbcURL, username, password);
-        } catch (ClassNotFoundException | SQLException e) {
-            e.printStackTrace();
+            Class.forName(driver);
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("JDBC driver not found: " + driver, e);
+        }
+        ConnectionPool started = new ConnectionPool(url, user, secret, poolMinSize, poolMaxSize,
+                poolIdleTimeoutMillis, poolBorrowTimeoutMillis, poolValidationTimeoutSeconds, statementCacheSize);
+        if (memory && !memoryDatabaseCreated) {
+            try (Connection connection = started.borrow()) {
+                EmbeddedDatabase.create(connection, Integer.getInteger("scheduler.db.seed.customers", 100),
+                        Integer.getInteger("scheduler.db.seed.appointments", 1000), Long.getLong("scheduler.db.seed", 1L));
+            } catch (SQLException e) {
+                started.close();
+                throw e;
+            }
+            memoryDatabaseCreated = true;
         }
-        return connection;
+        pool = started;
     }
 
     /**
-     * Retrieves the current active database connection.
+     * Borrows a connection from the pool, starting the pool first if needed.
+     * The connection must be closed to return it to the pool.
      *
-     * @return Current active Connection object. Returns null if not connected.
+     * @return A pooled Connection object.
+     * @throws SQLException if no connection can be obtained.
      */
-    public static Connection getConnection() {
-        return connection;
+    public static Connection getConnection() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            startConnection();
+            current = pool;
+        }
+        return current.borrow();
     }
 
     /**
-     * Closes the current active database connection.
+     * Runs work as one transaction on a connection. If the connection is already inside a
+     * transaction, the work joins it and the caller stays responsible for committing.
+     *
+     * @param connection The connection to run on.
+     * @param work       The statements to run.
+     * @param <T>        The type of the work's result.
+     * @return What the work returned.
+     * @throws SQLException What the work threw; the transaction is rolled back first.
      */
-    public static void closeConnection() {
+    public static <T> T inTransaction(Connection connection, Work<T> work) throws SQLException {
+        if (!connection.getAutoCommit()) {
+            return work.run(connection);
+        }
+        connection.setAutoCommit(false);
         try {
-            if(connection != null) {
-                connection.close();
-            }
-        } catch (SQLException throwables) {
-            throwables.printStackTrace();
+            T result = work.run(connection);
+            connection.commit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
         }
     }
 
     /**
-     * Sets the PreparedStatement with the provided SQL statement.
+     * Prepares a statement that bypasses the connection's statement cache. Use it for SQL that
+     * varies from call to call, such as {@code IN} lists of different lengths, which would
+     * otherwise take a cache entry each and evict the statements that are reused.
      *
-     * @param conn Connection object.
-     * @param sqlStatement SQL statement string.
-     * @return PreparedStatement object. Always returns null in the current implementation.
-     * @throws SQLException If an SQL error occurs.
+     * @param connection The connection to prepare on.
+     * @param sql        The SQL text.
+     * @return A statement that is closed for good when it is closed.
+     * @throws SQLException If the statement cannot be prepared.
      */
-    public static PreparedStatement setPreparedStatement(Connection conn, String sqlStatement) throws SQLException {
-        preparedStatement = conn.prepareStatement(sqlStatement);
-        return null;
+    public static PreparedStatement prepareUncached(Connection connection, String sql) throws SQLException {
+        return connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
     }
 
     /**
-     * Retrieves the current active PreparedStatement.
+     * Returns the running connection pool, for monitoring.
      *
-     * @return Current PreparedStatement object.
+     * @return The pool, or null if it has not been started.
      */
-    public static PreparedStatement getPreparedStatement() {
-        return preparedStatement;
+    public static ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Shuts down the connection pool and closes every idle connection.
+     */
+    public static synchronized void closeConnection() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
     }
 }
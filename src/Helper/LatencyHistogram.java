@@ -0,0 +1,163 @@
+package Helper;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets: every power of two is split into 16 equal
+ * buckets, so any percentile is reported within about 6% of the true value while the whole
+ * histogram stays a fixed array of 960 counters. Recording is a few atomic increments, cheap
+ * enough to run on every database call.
+ * </p>
+ */
+public class LatencyHistogram {
+    private static final int subBucketBits = 4;
+    private static final int subBuckets = 1 << subBucketBits;
+    private static final int bucketCount = (64 - subBucketBits) * subBuckets;
+
+    private final AtomicLongArray counts = new AtomicLongArray(bucketCount);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos The duration in nanoseconds; negative values are counted as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Returns a consistent-enough copy of the counts for reporting. Values recorded while the
+     * copy is taken may or may not be included.
+     *
+     * @return The current totals.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[bucketCount];
+        long total = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, sum.sum(), max.get());
+    }
+
+    /**
+     * Returns the bucket a value falls into.
+     */
+    private static int indexOf(long value) {
+        if (value < subBuckets) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - subBucketBits)) & (subBuckets - 1);
+        return (exponent - subBucketBits + 1) * subBuckets + subBucket;
+    }
+
+    /**
+     * Returns the largest value that falls into a bucket.
+     */
+    private static long upperBoundOf(int index) {
+        if (index < subBuckets) {
+            return index;
+        }
+        int shift = index / subBuckets - 1;
+        long lower = (long) (subBuckets + index % subBuckets) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * The counts of a histogram at one point in time.
+     */
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Returns the values recorded after an earlier snapshot of the same histogram was taken.
+         * The maximum of the difference is the upper bound of its highest bucket.
+         *
+         * @param earlier The earlier snapshot, or null to return this one.
+         * @return The difference between the two snapshots.
+         */
+        public Snapshot since(Snapshot earlier) {
+            if (earlier == null) {
+                return this;
+            }
+            long[] difference = new long[bucketCount];
+            long highest = 0;
+            for (int i = 0; i < bucketCount; i++) {
+                difference[i] = counts[i] - earlier.counts[i];
+                if (difference[i] > 0) {
+                    highest = upperBoundOf(i);
+                }
+            }
+            return new Snapshot(difference, count - earlier.count, sum - earlier.sum, Math.min(highest, max));
+        }
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return The count.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the mean of the recorded values.
+         *
+         * @return The mean in nanoseconds, or 0 if nothing was recorded.
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Returns the largest recorded value.
+         *
+         * @return The maximum in nanoseconds.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Returns the value below which the given fraction of recorded values fall.
+         *
+         * @param quantile The fraction, such as 0.5 for the median or 0.99.
+         * @return The percentile in nanoseconds, or 0 if nothing was recorded.
+         */
+        public long getPercentile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
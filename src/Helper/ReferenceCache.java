@@ -0,0 +1,184 @@
+package Helper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * An in-memory copy of a small reference table, such as contacts or countries, with
+ * immutable lookups by ID and by name.
+ * <p>
+ * The table is loaded on first use. After that, a cheap version query is run at most
+ * once per check interval, and the table is reloaded only when the version it returns
+ * has changed. {@link #refresh()} forces a reload on demand.
+ * </p>
+ *
+ * @param <T> The row type held by the cache.
+ */
+public class ReferenceCache<T> {
+
+    /**
+     * Loads every row of the cached table.
+     *
+     * @param <T> The row type.
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        List<T> load() throws SQLException;
+    }
+
+    private final Loader<T> loader;
+    private final String versionQuery;
+    private final ToIntFunction<T> idOf;
+    private final Function<T, String> nameOf;
+    private final long versionCheckIntervalMillis;
+    private volatile Snapshot<T> snapshot;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param loader                     Loads every row of the table.
+     * @param versionQuery               A single-row query whose values change whenever the table does.
+     * @param idOf                       Extracts a row's ID.
+     * @param nameOf                     Extracts a row's name.
+     * @param versionCheckIntervalMillis Minimum time between version checks.
+     */
+    public ReferenceCache(Loader<T> loader, String versionQuery, ToIntFunction<T> idOf, Function<T, String> nameOf,
+                          long versionCheckIntervalMillis) {
+        this.loader = loader;
+        this.versionQuery = versionQuery;
+        this.idOf = idOf;
+        this.nameOf = nameOf;
+        this.versionCheckIntervalMillis = versionCheckIntervalMillis;
+    }
+
+    /**
+     * Returns every cached row in load order.
+     *
+     * @return An unmodifiable list of rows.
+     * @throws SQLException If the table has to be loaded and the database cannot be read.
+     */
+    public List<T> getAll() throws SQLException {
+        return current().rows;
+    }
+
+    /**
+     * Looks up a row by ID.
+     *
+     * @param id The row ID.
+     * @return The row, or null if there is none.
+     * @throws SQLException If the table has to be loaded and the database cannot be read.
+     */
+    public T getById(int id) throws SQLException {
+        return current().byId.get(id);
+    }
+
+    /**
+     * Looks up a row by name. If several rows share a name, the first one loaded is returned.
+     *
+     * @param name The row name.
+     * @return The row, or null if there is none.
+     * @throws SQLException If the table has to be loaded and the database cannot be read.
+     */
+    public T getByName(String name) throws SQLException {
+        return current().byName.get(name);
+    }
+
+    /**
+     * Reloads the table immediately.
+     *
+     * @throws SQLException If the database cannot be read.
+     */
+    public synchronized void refresh() throws SQLException {
+        snapshot = load(queryVersion());
+    }
+
+    /**
+     * Returns the current snapshot, loading or reloading it when needed.
+     */
+    private Snapshot<T> current() throws SQLException {
+        Snapshot<T> loaded = snapshot;
+        if (loaded != null && System.currentTimeMillis() - loaded.checkedAt < versionCheckIntervalMillis) {
+            return loaded;
+        }
+        synchronized (this) {
+            loaded = snapshot;
+            if (loaded == null) {
+                loaded = load(queryVersion());
+            } else if (System.currentTimeMillis() - loaded.checkedAt >= versionCheckIntervalMillis) {
+                String version = queryVersion();
+                loaded = version.equals(loaded.version) ? loaded.checked() : load(version);
+            }
+            snapshot = loaded;
+            return loaded;
+        }
+    }
+
+    /**
+     * Loads every row and builds the lookup maps.
+     */
+    private Snapshot<T> load(String version) throws SQLException {
+        List<T> rows = List.copyOf(loader.load());
+        Map<Integer, T> byId = new HashMap<>();
+        Map<String, T> byName = new HashMap<>();
+        for (T row : rows) {
+            byId.putIfAbsent(idOf.applyAsInt(row), row);
+            byName.putIfAbsent(nameOf.apply(row), row);
+        }
+        return new Snapshot<>(rows, Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byName), version);
+    }
+
+    /**
+     * Runs the version query and joins its columns into one string.
+     */
+    private String queryVersion() throws SQLException {
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(versionQuery);
+             ResultSet rs = ps.executeQuery()) {
+            StringBuilder version = new StringBuilder();
+            if (rs.next()) {
+                for (int column = 1; column <= rs.getMetaData().getColumnCount(); column++) {
+                    version.append(rs.getString(column)).append('|');
+                }
+            }
+            return version.toString();
+        }
+    }
+
+    /**
+     * An immutable view of the table at one version.
+     */
+    private static class Snapshot<T> {
+        private final List<T> rows;
+        private final Map<Integer, T> byId;
+        private final Map<String, T> byName;
+        private final String version;
+        private final long checkedAt;
+
+        private Snapshot(List<T> rows, Map<Integer, T> byId, Map<String, T> byName, String version) {
+            this(rows, byId, byName, version, System.currentTimeMillis());
+        }
+
+        private Snapshot(List<T> rows, Map<Integer, T> byId, Map<String, T> byName, String version, long checkedAt) {
+            this.rows = rows;
+            this.byId = byId;
+            this.byName = byName;
+            this.version = version;
+            this.checkedAt = checkedAt;
+        }
+
+        /**
+         * Returns the same data marked as checked now.
+         */
+        private Snapshot<T> checked() {
+            return new Snapshot<>(rows, byId, byName, version, System.currentTimeMillis());
+        }
+    }
+}
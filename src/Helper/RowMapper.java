@@ -0,0 +1,112 @@
+package Helper;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Turns the current row of a {@link ResultSet} into an object.
+ * <p>
+ * Reading a column by label makes the driver search the columns for a case-insensitive match
+ * on every call. A mapper is instead compiled once per result set by a {@link Compiler},
+ * which looks up the positions of the columns it needs in the {@link ResultSetMetaData}; the
+ * compiled mapper then reads every row by index. {@link #mapAll(ResultSet, Compiler, List)}
+ * does both steps for a whole result set.
+ * </p>
+ *
+ * @param <T> The type each row is mapped to.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the row the result set is positioned on.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The mapped row.
+     * @throws SQLException If a column cannot be read.
+     */
+    T map(ResultSet rs) throws SQLException;
+
+    /**
+     * Builds a mapper for the columns of one result set.
+     *
+     * @param <T> The type each row is mapped to.
+     */
+    @FunctionalInterface
+    interface Compiler<T> {
+        /**
+         * Resolves the columns the mapper reads and returns the mapper.
+         *
+         * @param columns The column positions of the result set.
+         * @return A mapper that reads by index.
+         * @throws SQLException If a required column is missing.
+         */
+        RowMapper<T> compile(Columns columns) throws SQLException;
+    }
+
+    /**
+     * Maps every remaining row of a result set, compiling the mapper once.
+     *
+     * @param rs       The result set to read.
+     * @param compiler Builds the mapper for the result set's columns.
+     * @param into     The list the rows are added to.
+     * @param <T>      The type each row is mapped to.
+     * @param <L>      The type of the list.
+     * @return The list, for chaining.
+     * @throws SQLException If the result set cannot be read.
+     */
+    static <T, L extends List<? super T>> L mapAll(ResultSet rs, Compiler<T> compiler, L into) throws SQLException {
+        RowMapper<T> mapper = compiler.compile(Columns.of(rs.getMetaData()));
+        while (rs.next()) {
+            into.add(mapper.map(rs));
+        }
+        return into;
+    }
+
+    /**
+     * The positions of a result set's columns, looked up by label without regard to case.
+     */
+    final class Columns {
+        private final Map<String, Integer> positions;
+
+        private Columns(Map<String, Integer> positions) {
+            this.positions = positions;
+        }
+
+        /**
+         * Reads the column labels of a result set. When two columns share a label, the first wins,
+         * as it does for {@link ResultSet#findColumn(String)}.
+         *
+         * @param metaData The result set's metadata.
+         * @return The column positions.
+         * @throws SQLException If the metadata cannot be read.
+         */
+        public static Columns of(ResultSetMetaData metaData) throws SQLException {
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = metaData.getColumnCount(); i >= 1; i--) {
+                positions.put(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+            }
+            return new Columns(positions);
+        }
+
+        /**
+         * Returns the position of a column.
+         *
+         * @param label The column label.
+         * @return The 1-based column index.
+         * @throws SQLException If the result set has no such column.
+         */
+        public int get(String label) throws SQLException {
+            Integer position = positions.get(label.toLowerCase(Locale.ROOT));
+            if (position == null) {
+                throw new SQLException("Column not found: " + label);
+            }
+            return position;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package Helper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded cache of prepared statements belonging to one physical connection, keyed by SQL text.
+ * <p>
+ * Statements are handed out as proxies whose {@code close()} closes any open result set, clears
+ * the parameters and any pending batch, and keeps the statement for the next caller with the
+ * same SQL. When the cache is
+ * full the least recently used statement is closed. A statement whose SQL is already lent out is
+ * prepared uncached, so nested use of the same query still works.
+ * </p>
+ */
+public class StatementCache {
+    private final Connection physical;
+    private final int capacity;
+    private final LinkedHashMap<String, CachedStatement> statements;
+    private boolean closed = false;
+
+    /**
+     * Creates an empty cache for a physical connection.
+     *
+     * @param physical The connection statements are prepared on.
+     * @param capacity The maximum number of statements kept open.
+     */
+    public StatementCache(Connection physical, int capacity) {
+        this.physical = physical;
+        this.capacity = capacity;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > StatementCache.this.capacity) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a prepared statement for the given SQL, reusing a cached one when it is free.
+     *
+     * @param sql   The SQL text to prepare.
+     * @param owner The connection handed to the caller, reported by {@link PreparedStatement#getConnection()}.
+     * @return A prepared statement that is returned to the cache when closed.
+     * @throws SQLException if the statement cannot be prepared.
+     */
+    public synchronized PreparedStatement prepare(String sql, Connection owner) throws SQLException {
+        if (closed || capacity <= 0) {
+            return physical.prepareStatement(sql);
+        }
+        CachedStatement cached = statements.get(sql);
+        if (cached == null) {
+            cached = new CachedStatement(sql, physical.prepareStatement(sql));
+            statements.put(sql, cached);
+        } else if (cached.inUse) {
+            return physical.prepareStatement(sql);
+        }
+        return cached.lend(owner);
+    }
+
+    /**
+     * Returns the number of statements currently cached.
+     *
+     * @return The number of cached statements.
+     */
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    /**
+     * Closes every cached statement. Statements still lent out are closed when they are returned.
+     */
+    public synchronized void close() {
+        closed = true;
+        List<CachedStatement> all = new ArrayList<>(statements.values());
+        statements.clear();
+        all.forEach(CachedStatement::evict);
+    }
+
+    /**
+     * A physical prepared statement owned by the cache.
+     */
+    private class CachedStatement {
+        private final String sql;
+        private final PreparedStatement statement;
+        private boolean inUse = false;
+        private boolean evicted = false;
+
+        private CachedStatement(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        /**
+         * Wraps the statement in a proxy whose {@code close()} returns it to the cache.
+         */
+        private PreparedStatement lend(Connection owner) {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new LentStatementHandler(this, owner));
+        }
+
+        /**
+         * Drops the statement from the cache, closing it now if it is not lent out.
+         */
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly(statement);
+            }
+        }
+
+        /**
+         * Takes the statement back from a borrower and resets it for the next one.
+         */
+        private void giveBack(ResultSet openResultSet) {
+            synchronized (StatementCache.this) {
+                inUse = false;
+                try {
+                    if (openResultSet != null) {
+                        openResultSet.close();
+                    }
+                    if (evicted) {
+                        statement.close();
+                    } else {
+                        statement.clearParameters();
+                        statement.clearBatch();     // A batch abandoned after a failure must not reach the next borrower
+                    }
+                } catch (SQLException e) {
+                    statements.remove(sql, this);
+                    closeQuietly(statement);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forwards calls to the cached statement until the borrower closes it.
+     */
+    private class LentStatementHandler implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection owner;
+        private ResultSet openResultSet;
+        private boolean returned = false;
+
+        private LentStatementHandler(CachedStatement cached, Connection owner) {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        cached.giveBack(openResultSet);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || cached.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached" + cached.statement;
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Statement has already been closed.");
+            }
+            try {
+                Object result = method.invoke(cached.statement, args);
+                if (result instanceof ResultSet) {
+                    openResultSet = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Closes a statement, reporting but otherwise ignoring failures.
+     */
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
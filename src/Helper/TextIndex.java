@@ -0,0 +1,259 @@
+package Helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * An inverted index from words to the IDs of the records that contain them.
+ * <p>
+ * Text is split into words at every character that is not a letter or a digit, and words are
+ * compared in lower case. Each word has a posting list: the IDs of its records as a sorted
+ * array of ints, so adding a record with a higher ID than any before is an append. A query
+ * matches the records that contain every word of it; the last word also matches longer words
+ * it is the start of, so results can follow the user's typing. Queries walk the shortest list
+ * and look the other words up by binary search, and stop after the requested number of
+ * results, so their cost depends on the rarest word rather than on the number of records.
+ * </p>
+ * <p>
+ * The index does not keep the text it was given, so removing a record takes the same text it
+ * was added with. The class is not thread-safe.
+ * </p>
+ */
+public class TextIndex {
+    private static final int minimumPrefix = 2;     // Shorter last words only match whole words
+
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+
+    /**
+     * Adds a record under every word in its text.
+     *
+     * @param id    The record's ID.
+     * @param texts The record's searchable fields; null fields are skipped.
+     */
+    public void add(int id, String... texts) {
+        for (String word : words(texts)) {
+            postings.computeIfAbsent(word, w -> new Postings()).add(id);
+        }
+    }
+
+    /**
+     * Removes a record from the posting lists of the words in its text.
+     *
+     * @param id    The record's ID.
+     * @param texts The fields the record was added with.
+     */
+    public void remove(int id, String... texts) {
+        for (String word : words(texts)) {
+            Postings list = postings.get(word);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    /**
+     * Finds the records that contain every word of a query.
+     *
+     * @param query The words to look for, separated as in the indexed text.
+     * @param limit The maximum number of IDs to return.
+     * @return The IDs of up to {@code limit} matching records, in ascending order; empty if
+     * the query has no words.
+     */
+    public int[] search(String query, int limit) {
+        List<String> words = split(query);
+        if (words.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        boolean prefix = Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        List<Postings[]> terms = new ArrayList<>();
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            Postings[] matches;
+            if (prefix && i == words.size() - 1 && word.length() >= minimumPrefix) {
+                matches = postings.subMap(word, word + Character.MAX_VALUE).values().toArray(new Postings[0]);
+            } else {
+                Postings exact = postings.get(word);
+                matches = exact == null ? new Postings[0] : new Postings[]{exact};
+            }
+            if (matches.length == 0) {
+                return new int[0];
+            }
+            terms.add(matches);
+        }
+        terms.sort(Comparator.comparingLong(TextIndex::size));
+
+        // Walk the rarest term's IDs in order and keep those every other term contains
+        int[] found = new int[limit];
+        int count = 0;
+        Merge candidates = new Merge(terms.get(0));
+        for (int id = candidates.next(); id >= 0 && count < limit; id = candidates.next()) {
+            boolean all = true;
+            for (int t = 1; t < terms.size() && all; t++) {
+                all = contains(terms.get(t), id);
+            }
+            if (all) {
+                found[count++] = id;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Returns true if a record's text matches a query the way {@link #search(String, int)}
+     * would, without an index. Used to check a single changed record against a search.
+     *
+     * @param query The words to look for.
+     * @param texts The record's searchable fields; null fields are skipped.
+     * @return true if the query has words and the text contains all of them.
+     */
+    public static boolean matches(String query, String... texts) {
+        List<String> words = split(query);
+        if (words.isEmpty()) {
+            return false;
+        }
+        boolean prefix = Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        List<String> text = words(texts);
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            boolean startsOnly = prefix && i == words.size() - 1 && word.length() >= minimumPrefix;
+            if (text.stream().noneMatch(w -> startsOnly ? w.startsWith(word) : w.equals(word))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits text into lower-case words at every character that is not a letter or a digit.
+     *
+     * @param text The text to split, or null.
+     * @return The words, in order, with repeats.
+     */
+    public static List<String> split(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static List<String> words(String... texts) {
+        List<String> words = new ArrayList<>();
+        for (String text : texts) {
+            words.addAll(split(text));
+        }
+        return words;
+    }
+
+    private static long size(Postings[] lists) {
+        long size = 0;
+        for (Postings list : lists) {
+            size += list.size;
+        }
+        return size;
+    }
+
+    private static boolean contains(Postings[] lists, int id) {
+        for (Postings list : lists) {
+            if (list.indexOf(id) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The sorted IDs of the records that contain one word.
+     */
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int index = indexOf(id);
+                if (index >= 0) {
+                    return;
+                }
+                insertAt(-index - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        private boolean remove(int id) {
+            int index = indexOf(id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        private int indexOf(int id) {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+
+        private void insertAt(int index, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+
+    /**
+     * Merges several posting lists into one ascending run of distinct IDs.
+     */
+    private static class Merge {
+        private final Postings[] lists;
+        private final int[] positions;
+        private final PriorityQueue<Integer> heads;     // Indexes into lists, by their current ID
+        private int last = -1;
+
+        private Merge(Postings[] lists) {
+            this.lists = lists;
+            this.positions = new int[lists.length];
+            this.heads = new PriorityQueue<>(Math.max(1, lists.length), Comparator.comparingInt(l -> lists[l].ids[positions[l]]));
+            for (int l = 0; l < lists.length; l++) {
+                heads.add(l);
+            }
+        }
+
+        /**
+         * Returns the next ID, or -1 once every list is used up.
+         */
+        private int next() {
+            while (!heads.isEmpty()) {
+                int l = heads.poll();
+                int id = lists[l].ids[positions[l]++];
+                if (positions[l] < lists[l].size) {
+                    heads.add(l);
+                }
+                if (id != last) {
+                    last = id;
+                    return id;
+                }
+            }
+            return -1;
+        }
+    }
+}
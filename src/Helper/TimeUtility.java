@@ -1,45 +1,73 @@
 package Helper;
 
-import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 
 /**
  * TimeUtility class provides utility methods for managing and converting time.
- * Specifically, it offers methods for converting time between UTC and local time zones.
+ * <p>
+ * Appointment times are stored in the database in UTC, shown to the user on the local
+ * wall clock, and checked against business hours on the wall clock of
+ * {@link #businessZone}. The DAO layer converts at its boundary, so the rest of the
+ * application only sees local times. The converters resolve their zone rules once; the
+ * local zone is the system default when this class is first used.
+ * </p>
  */
 public class TimeUtility {
 
     /**
-     * Converts the provided date and time string to its representation in UTC.
-     * The method uses several intermediate steps and prints out each transformation
-     * for debugging purposes. However, the current implementation will always
-     * return the input string without any modifications.
+     * The zone that business hours are defined in.
+     */
+    public static final ZoneId businessZone = ZoneId.of("America/New_York");
+
+    private static final ZoneConverter local = new ZoneConverter(ZoneId.systemDefault());
+    private static final ZoneConverter business = new ZoneConverter(businessZone);
+
+    /**
+     * Returns the converter for the local wall clock.
+     *
+     * @return The local converter.
+     */
+    public static ZoneConverter local() {
+        return local;
+    }
+
+    /**
+     * Returns the converter for the business wall clock.
+     *
+     * @return The converter for {@link #businessZone}.
+     */
+    public static ZoneConverter business() {
+        return business;
+    }
+
+    /**
+     * Converts a local date and time to UTC, as stored in the database.
+     *
+     * @param localDateTime The local date and time, or null.
+     * @return The same instant in UTC, or null.
+     */
+    public static LocalDateTime toUtc(LocalDateTime localDateTime) {
+        return local.toUtc(localDateTime);
+    }
+
+    /**
+     * Converts a UTC date and time, as stored in the database, to local time.
+     *
+     * @param utcDateTime The UTC date and time, or null.
+     * @return The same instant in local time, or null.
+     */
+    public static LocalDateTime toLocal(LocalDateTime utcDateTime) {
+        return local.fromUtc(utcDateTime);
+    }
+
+    /**
+     * Converts a local date and time to the business wall clock.
      *
-     * @param dateTime String representation of date and time to be converted.
-     * @return The original dateTime string without modification.
+     * @param localDateTime The local date and time, or null.
+     * @return The same instant in {@link #businessZone}, or null.
      */
-    public static String convertTimeDateUTC(String dateTime) {
-        Timestamp ts = Timestamp.valueOf(LocalDateTime.now());
-        LocalDateTime ldt = ts.toLocalDateTime();
-        ZonedDateTime zdt = ldt.atZone(ZoneId.of(ZoneId.systemDefault().toString()));
-        ZonedDateTime utczdt = zdt.withZoneSameInstant(ZoneId.of("UTC"));
-        LocalDateTime ldtIn = utczdt.toLocalDateTime();
-        ZonedDateTime zdtOut = ldtIn.atZone(ZoneId.of("UTC"));
-        ZonedDateTime zdtOutToLocalTZ = zdtOut.withZoneSameInstant(ZoneId.of(ZoneId.systemDefault().toString()));
-        LocalDateTime ldtOutFinal = zdtOutToLocalTZ.toLocalDateTime();
-
-        // Print out each transformation for debugging
-        System.out.println(ts);
-        System.out.println(ldt);
-        System.out.println(zdt);
-        System.out.println(utczdt);
-        System.out.println(ldtIn);
-        System.out.println(zdtOut);
-        System.out.println(zdtOutToLocalTZ);
-        System.out.println(ldtOutFinal);
-
-        return dateTime;
+    public static LocalDateTime toBusiness(LocalDateTime localDateTime) {
+        return business.fromUtc(local.toUtc(localDateTime));
     }
 }
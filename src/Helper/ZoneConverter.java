@@ -0,0 +1,259 @@
+package Helper;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts wall-clock times of one zone to and from UTC.
+ * <p>
+ * The zone's {@link ZoneRules} are resolved once. Times are handled as epoch seconds of the
+ * wall clock, that is {@code LocalDateTime.toEpochSecond(ZoneOffset.UTC)}, so a conversion is
+ * adding or subtracting the zone's offset. The offset in effect and the range of times it
+ * applies to, up to the next daylight saving transition, are cached, so runs of nearby times
+ * such as an import or an export only consult the rules when they cross a transition. The
+ * windows between 1970 and 2100 are built up front, so times in any order are found with a
+ * binary search instead of a lookup in the rules.
+ * </p>
+ * <p>
+ * Wall-clock times that fall in a gap or an overlap are resolved the way
+ * {@link LocalDateTime#atZone(ZoneId)} does: with the offset in effect before the transition.
+ * The class is thread-safe.
+ * </p>
+ */
+public class ZoneConverter {
+    private static final long firstPrecomputed = LocalDateTime.of(1970, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final long lastPrecomputed = LocalDateTime.of(2100, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final Window[] windows;     // Consecutive windows covering the precomputed range, in order
+    private volatile Window window;     // The last offset used, and the times it applies to
+
+    /**
+     * Creates a converter for a zone.
+     *
+     * @param zone The zone whose wall clock is converted.
+     */
+    public ZoneConverter(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        List<Window> precomputed = new ArrayList<>();
+        Window next = windowAt(firstPrecomputed);
+        precomputed.add(next);
+        while (next.utcTo < lastPrecomputed) {
+            next = windowAt(next.utcTo);
+            precomputed.add(next);
+        }
+        this.windows = precomputed.toArray(new Window[0]);
+        this.window = windows[0];
+    }
+
+    /**
+     * Returns the zone this converter is for.
+     *
+     * @return The zone.
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Converts a wall-clock time of this zone to UTC.
+     *
+     * @param local The wall-clock time, or null.
+     * @return The same instant as a UTC date and time, or null.
+     */
+    public LocalDateTime toUtc(LocalDateTime local) {
+        if (local == null) {
+            return null;
+        }
+        long seconds = local.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(toUtcSeconds(seconds), local.getNano(), ZoneOffset.UTC);
+    }
+
+    /**
+     * Converts a UTC date and time to the wall clock of this zone.
+     *
+     * @param utc The UTC date and time, or null.
+     * @return The same instant on this zone's wall clock, or null.
+     */
+    public LocalDateTime fromUtc(LocalDateTime utc) {
+        if (utc == null) {
+            return null;
+        }
+        long seconds = utc.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(fromUtcSeconds(seconds), utc.getNano(), ZoneOffset.UTC);
+    }
+
+    /**
+     * Converts a wall-clock time of this zone, in epoch seconds, to UTC epoch seconds.
+     *
+     * @param localSeconds The wall-clock time as {@code LocalDateTime.toEpochSecond(ZoneOffset.UTC)}.
+     * @return The epoch second of the same instant.
+     */
+    public long toUtcSeconds(long localSeconds) {
+        Window current = window;
+        if (localSeconds < current.localFrom || localSeconds >= current.localTo) {
+            current = findLocalWindow(localSeconds);
+            window = current;
+        }
+        return localSeconds - current.offset;
+    }
+
+    /**
+     * Converts UTC epoch seconds to the wall clock of this zone, in epoch seconds.
+     *
+     * @param utcSeconds The epoch second of an instant.
+     * @return The wall-clock time as {@code LocalDateTime.toEpochSecond(ZoneOffset.UTC)}.
+     */
+    public long fromUtcSeconds(long utcSeconds) {
+        Window current = window;
+        if (utcSeconds < current.utcFrom || utcSeconds >= current.utcTo) {
+            current = findWindow(utcSeconds);
+            window = current;
+        }
+        return utcSeconds + current.offset;
+    }
+
+    /**
+     * Converts many wall-clock times of this zone to UTC, as {@link #toUtcSeconds(long)} does.
+     * The arrays may be the same array.
+     *
+     * @param localSeconds The wall-clock times in epoch seconds.
+     * @param utcSeconds   Receives the UTC epoch seconds; at least as long as {@code localSeconds}.
+     */
+    public void toUtcSeconds(long[] localSeconds, long[] utcSeconds) {
+        Window current = window;
+        for (int i = 0; i < localSeconds.length; i++) {
+            long seconds = localSeconds[i];
+            if (seconds < current.localFrom || seconds >= current.localTo) {
+                current = findLocalWindow(seconds);
+            }
+            utcSeconds[i] = seconds - current.offset;
+        }
+        window = current;
+    }
+
+    /**
+     * Converts many UTC epoch seconds to the wall clock of this zone, as
+     * {@link #fromUtcSeconds(long)} does. The arrays may be the same array.
+     *
+     * @param utcSeconds   The UTC epoch seconds.
+     * @param localSeconds Receives the wall-clock times in epoch seconds; at least as long as {@code utcSeconds}.
+     */
+    public void fromUtcSeconds(long[] utcSeconds, long[] localSeconds) {
+        Window current = window;
+        for (int i = 0; i < utcSeconds.length; i++) {
+            long seconds = utcSeconds[i];
+            if (seconds < current.utcFrom || seconds >= current.utcTo) {
+                current = findWindow(seconds);
+            }
+            localSeconds[i] = seconds + current.offset;
+        }
+        window = current;
+    }
+
+    /**
+     * Finds the window of the offset in effect at a UTC epoch second.
+     */
+    private Window findWindow(long utcSeconds) {
+        if (utcSeconds >= firstPrecomputed && utcSeconds < lastPrecomputed) {
+            int low = 0;
+            int high = windows.length - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (windows[middle].utcFrom <= utcSeconds) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return windows[low];
+        }
+        return windowAt(utcSeconds);
+    }
+
+    /**
+     * Finds the window of the offset that applies to a wall-clock time.
+     */
+    private Window findLocalWindow(long localSeconds) {
+        if (localSeconds >= firstPrecomputed && localSeconds < lastPrecomputed) {
+            int low = 0;
+            int high = windows.length - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (windows[middle].localFrom <= localSeconds) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            if (localSeconds >= windows[low].localFrom && localSeconds < windows[low].localTo) {
+                return windows[low];
+            }
+        }
+        return windowAtLocal(localSeconds);
+    }
+
+    /**
+     * Looks up the window of the offset in effect at a UTC epoch second in the rules.
+     */
+    private Window windowAt(long utcSeconds) {
+        if (rules.isFixedOffset()) {
+            return new Window(Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE,
+                    rules.getOffset(Instant.EPOCH).getTotalSeconds());
+        }
+        Instant instant = Instant.ofEpochSecond(utcSeconds);
+        int offset = rules.getOffset(instant).getTotalSeconds();
+        ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        long utcFrom = previous == null ? Long.MIN_VALUE / 2 : previous.toEpochSecond();
+        long utcTo = next == null ? Long.MAX_VALUE / 2 : next.toEpochSecond();
+
+        // Wall-clock times repeated by a previous overlap belong to the offset before it
+        long localFrom = utcFrom + offset;
+        if (previous != null && previous.isOverlap()) {
+            localFrom = utcFrom + previous.getOffsetBefore().getTotalSeconds();
+        }
+        return new Window(utcFrom, utcTo, localFrom, utcTo + offset, offset);
+    }
+
+    /**
+     * Looks up the window of the offset that applies to a wall-clock time in the rules.
+     */
+    private Window windowAtLocal(long localSeconds) {
+        LocalDateTime local = LocalDateTime.ofEpochSecond(localSeconds, 0, ZoneOffset.UTC);
+        int offset = rules.getOffset(local).getTotalSeconds();
+        Window candidate = windowAt(localSeconds - offset);
+        if (candidate.offset == offset && localSeconds >= candidate.localFrom && localSeconds < candidate.localTo) {
+            return candidate;
+        }
+        // A time in a gap or an overlap; use its offset for that second only
+        return new Window(localSeconds - offset, localSeconds - offset + 1, localSeconds, localSeconds + 1, offset);
+    }
+
+    /**
+     * A range of instants that share one offset, and the wall-clock times that convert with it.
+     */
+    private static class Window {
+        private final long utcFrom;
+        private final long utcTo;
+        private final long localFrom;
+        private final long localTo;
+        private final int offset;
+
+        private Window(long utcFrom, long utcTo, long localFrom, long localTo, int offset) {
+            this.utcFrom = utcFrom;
+            this.utcTo = utcTo;
+            this.localFrom = localFrom;
+            this.localTo = localTo;
+            this.offset = offset;
+        }
+    }
+}
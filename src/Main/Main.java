@@ -1,5 +1,9 @@
 package Main;
 
+import DAO.AsyncAccess;
+import DAO.ReportSummaries;
+import Helper.AuditLog;
+import Helper.DaoMetrics;
 import Helper.JDBC;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -7,6 +11,8 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Arrays;
 import Helper.General.*;
 
 /**
@@ -39,15 +45,29 @@ public class Main extends Application {
     }
 
     /**
-     * The Main method loads all database connection and launches the fmxl.
+     * The Main method starts the database connection pool and launches the fmxl.
+     * With {@code --rebuild-reports} it recomputes the report totals and exits instead.
      *
      * @param args
      * @throws Exception
      */
     public static void main(String[] args) throws Exception {
         /*Locale.setDefault(new Locale("fr"));*/
-        JDBC.getConnection();
+        try {
+            JDBC.startConnection();
+        } catch (SQLException e) {
+            e.printStackTrace();    // The login screen retries and reports it
+        }
+        if (Arrays.asList(args).contains("--rebuild-reports")) {
+            System.out.println("Rebuilt " + ReportSummaries.rebuild() + " report totals.");
+            JDBC.closeConnection();
+            return;
+        }
+        DaoMetrics.start();
         launch(args);
+        AsyncAccess.shutdown();
+        DaoMetrics.stop();
+        AuditLog.closeLoginActivity();
         JDBC.closeConnection();
     }
 